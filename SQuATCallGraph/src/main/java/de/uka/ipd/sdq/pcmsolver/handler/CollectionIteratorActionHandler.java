@@ -1,16 +1,14 @@
 package de.uka.ipd.sdq.pcmsolver.handler;
 
+import java.util.Map;
+
 import org.apache.log4j.Logger;
-import org.eclipse.emf.common.util.EList;
 
-import org.palladiosimulator.pcm.parameter.VariableCharacterisation;
 import org.palladiosimulator.pcm.parameter.VariableCharacterisationType;
-import org.palladiosimulator.pcm.parameter.VariableUsage;
 import org.palladiosimulator.pcm.repository.Parameter;
 import org.palladiosimulator.pcm.seff.CollectionIteratorAction;
+import de.uka.ipd.sdq.pcmsolver.transformations.UsageContextParameters;
 import de.uka.ipd.sdq.pcmsolver.visitors.SeffVisitor;
-import de.uka.ipd.sdq.stoex.AbstractNamedReference;
-import de.uka.ipd.sdq.stoex.NamespaceReference;
 
 /**
  * @author Koziolek
@@ -53,30 +51,19 @@ public class CollectionIteratorActionHandler extends AbstractLoopActionHandler{
 	 * @return
 	 */
 	private String getIterationExpression(String soughtParameterName){
-		EList<VariableUsage> vuList = visitor.getContextWrapper().getCompUsgCtx().getInput_ComputedUsageContext().getParameterChacterisations_Input();
+		Map<VariableCharacterisationType, String> varChars = UsageContextParameters
+				.get(visitor.getContextWrapper().getCompUsgCtx())
+				.getInputCharacterisations(soughtParameterName);
 
-		for (VariableUsage vu : vuList){ // iterate over parameters
-			String currentParameterName = "";
-			AbstractNamedReference ref = vu.getNamedReference__VariableUsage();
-			while (ref instanceof NamespaceReference){
-				NamespaceReference nsRef = (NamespaceReference)ref;
-				currentParameterName += nsRef.getReferenceName() + ".";
-				ref = nsRef.getInnerReference_NamespaceReference();
-			}
-			currentParameterName += ref.getReferenceName();
-			
-			if (currentParameterName.equals(soughtParameterName)){
-				EList<VariableCharacterisation> varChars = vu.getVariableCharacterisation_VariableUsage();
-				for (VariableCharacterisation vc : varChars){ // iterate over a parameter's characterisations
-					if (vc.getType() == VariableCharacterisationType.NUMBER_OF_ELEMENTS){
-						return vc.getSpecification_VariableCharacterisation().getSpecification();
-					}
-				}
-				logger.error("Variable Characterisation NUMBER_OF_ELEMENTS missing " +
-						"in Usage Context for parameter "+soughtParameterName+")! " +
-								"It is needed for a CollectionIteratorAction.");
-				return null;
+		if (varChars != null){
+			String specification = varChars.get(VariableCharacterisationType.NUMBER_OF_ELEMENTS);
+			if (specification != null){
+				return specification;
 			}
+			logger.error("Variable Characterisation NUMBER_OF_ELEMENTS missing " +
+					"in Usage Context for parameter "+soughtParameterName+")! " +
+							"It is needed for a CollectionIteratorAction.");
+			return null;
 		}
 		logger.error("Variable "+soughtParameterName+" missing " +
 				"in Usage Context!");
@@ -7,21 +7,11 @@ import org.eclipse.emf.common.util.EList;
 import org.palladiosimulator.pcm.core.CoreFactory;
 import org.palladiosimulator.pcm.core.PCMRandomVariable;
 import org.palladiosimulator.pcm.parameter.VariableUsage;
-import org.palladiosimulator.pcm.qosannotations.QoSAnnotations;
-import org.palladiosimulator.pcm.qosannotations.SpecifiedQoSAnnotation;
 import org.palladiosimulator.pcm.qosannotations.qos_performance.SpecifiedExecutionTime;
 import org.palladiosimulator.pcm.repository.Interface;
-import org.palladiosimulator.pcm.repository.OperationRequiredRole;
-import org.palladiosimulator.pcm.repository.Role;
 import org.palladiosimulator.pcm.repository.Signature;
-import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
-import org.palladiosimulator.pcm.resourceenvironment.ResourceContainer;
-import org.palladiosimulator.pcm.resourceenvironment.ResourceenvironmentFactory;
-import org.palladiosimulator.pcm.resourcetype.ProcessingResourceType;
-import org.palladiosimulator.pcm.resourcetype.ResourcetypeFactory;
 import org.palladiosimulator.pcm.seff.ExternalCallAction;
 import org.palladiosimulator.pcm.seff.InternalAction;
-import org.palladiosimulator.pcm.seff.ResourceDemandingBehaviour;
 import org.palladiosimulator.pcm.seff.SeffFactory;
 import org.palladiosimulator.pcm.seff.ServiceEffectSpecification;
 import org.palladiosimulator.pcm.seff.seff_performance.ParametricResourceDemand;
@@ -34,6 +24,8 @@ import org.palladiosimulator.solver.context.computed_usage.ExternalCallOutput;
 import org.palladiosimulator.solver.context.computed_usage.Input;
 
 import de.uka.ipd.sdq.pcmsolver.transformations.ContextWrapper;
+import de.uka.ipd.sdq.pcmsolver.transformations.QoSAnnotationIndex;
+import de.uka.ipd.sdq.pcmsolver.visitors.ParallelTraversal;
 import de.uka.ipd.sdq.pcmsolver.visitors.SeffVisitor;
 import de.uka.ipd.sdq.pcmsolver.visitors.VariableUsageHelper;
 import io.github.squat_team.callgraph.data.CallEntity;
@@ -63,15 +55,15 @@ public class ExternalCallActionHandler {
 	/**
 	 * @param call
 	 */
-	public void handle(ExternalCallAction call, CallEntity callEntity) {
+	public void handle(ExternalCallAction call, final CallEntity callEntity) {
 
 		Signature serviceToBeCalled = call.getCalledService_ExternalService();
-		ServiceEffectSpecification seff = visitor.getContextWrapper().getNextSEFF(call);
+		final ServiceEffectSpecification seff = visitor.getContextWrapper().getNextSEFF(call);
 		
 		if (seff == null){
 			logger.warning("I found no SEFF for service "+serviceToBeCalled.getEntityName() + " called by External Call "+ call.getId() + " thus I assume a System External Call");
 			String timeSpecification = getTimeSpecification(serviceToBeCalled);
-			createInternalAction(timeSpecification, call);
+			handleSystemExternalCall(timeSpecification);
 		} else {
 			//logger.debug("Found Assembly Connector");
 			
@@ -82,8 +74,16 @@ public class ExternalCallActionHandler {
 			ContextWrapper oldContextWrapper = (ContextWrapper)visitor.getContextWrapper().clone();
 			List<ContextWrapper> contextWrapperList = visitor.getContextWrapper().getContextWrapperFor(call);
 			SeffVisitor seffVisitor = null;
-			for (ContextWrapper contextWrapper : contextWrapperList) {
-				seffVisitor = visitSEFF(seff, contextWrapper, callEntity);
+			// the component instances are visited concurrently if enabled, see ParallelTraversal
+			List<SeffVisitor> seffVisitors = ParallelTraversal.traverse(contextWrapperList,
+					new ParallelTraversal.Traversal<SeffVisitor>() {
+						@Override
+						public SeffVisitor traverse(ContextWrapper contextWrapper) {
+							return visitSEFF(seff, contextWrapper, callEntity);
+						}
+					});
+			if (!seffVisitors.isEmpty()) {
+				seffVisitor = seffVisitors.get(seffVisitors.size() - 1);
 			}
 			// because AllocationContexts do not have Parameters, the parameters of the output will be the same for all component instances. 
 			// Note that this would be not true anymore if 1:n connectors are introduced on the system level. Then, 
@@ -114,87 +114,44 @@ public class ExternalCallActionHandler {
 		return seffVisitor;
 	}
 	
-	private void createInternalAction(String timeSpecification, ExternalCallAction call) {
+	/**
+	 * Accounts the time specification of a system external call as a resource
+	 * demand on the system external resource. The demand is handled like the
+	 * one of an InternalAction following the call, but the action is not
+	 * inserted into the SEFF, so the models stay unchanged and can be analysed
+	 * again. As a consequence, the computed ResourceDemand of the call refers
+	 * to a ParametricResourceDemand that is not contained in any resource
+	 * (see {@link de.uka.ipd.sdq.pcmsolver.models.PCMInstance#saveToFiles(String)}).
+	 * 
+	 * @param timeSpecification
+	 */
+	private void handleSystemExternalCall(String timeSpecification) {
 		PCMRandomVariable rv= CoreFactory.eINSTANCE.createPCMRandomVariable();
 		rv.setSpecification(timeSpecification);
 		
 		ParametricResourceDemand demand = performanceFactory.createParametricResourceDemand();
 		
 		demand.setSpecification_ParametericResourceDemand(rv);
-		demand.setRequiredResource_ParametricResourceDemand(getProcessingResourceType());
+		demand.setRequiredResource_ParametricResourceDemand(visitor.getContextWrapper().getPcmInstance()
+				.getSystemExternalResourceSpecification().getActiveResourceType_ActiveResourceSpecification());
 		
 		InternalAction action = seffFactory.createInternalAction();
 		action.getResourceDemand_Action().add(demand);
 		
-		// Add new internal action into control flow after external action
-		action.setSuccessor_AbstractAction(call.getSuccessor_AbstractAction());
-		action.setPredecessor_AbstractAction(call);
-		
-		ResourceDemandingBehaviour rdb = (ResourceDemandingBehaviour)call.eContainer();
-		rdb.getSteps_Behaviour().add(action);
-	}
-
-	private ProcessingResourceType getProcessingResourceType() {
-		EList<ResourceContainer> resConList = visitor.getContextWrapper().getPcmInstance().getResourceEnvironment().getResourceContainer_ResourceEnvironment();
-		for (ResourceContainer resCon : resConList){
-			if (resCon.getEntityName().equals("SystemExternalResourceContainer")){
-				return resCon.getActiveResourceSpecifications_ResourceContainer().get(0).getActiveResourceType_ActiveResourceSpecification();
-			}
-		}
-		return createNewProcessingResourceType();
-	}
-
-	private ProcessingResourceType createNewProcessingResourceType() {
-		ProcessingResourceType resType = ResourcetypeFactory.eINSTANCE.createProcessingResourceType();
-		resType.setEntityName("SystemExternalResource");
-		visitor.getContextWrapper().getPcmInstance().getResourceRepository().getAvailableResourceTypes_ResourceRepository().add(resType);
-		
-		ProcessingResourceSpecification res = ResourceenvironmentFactory.eINSTANCE.createProcessingResourceSpecification();
-		res.setActiveResourceType_ActiveResourceSpecification(resType);
-		
-		PCMRandomVariable rv = CoreFactory.eINSTANCE.createPCMRandomVariable();
-		rv.setSpecification("1.0");
-
-		res.setProcessingRate_ProcessingResourceSpecification(rv);
-		// TODO: FIX
-		//res.setSchedulingPolicy(SchedulingPolicy.PROCESSOR_SHARING);
-		
-		ResourceContainer resCon = ResourceenvironmentFactory.eINSTANCE.createResourceContainer();
-		resCon.setEntityName("SystemExternalResourceContainer");
-		resCon.getActiveResourceSpecifications_ResourceContainer().add(res);
-		visitor.getContextWrapper().getPcmInstance().getResourceEnvironment().getResourceContainer_ResourceEnvironment().add(resCon);
-		
-		return resType;
+		new InternalActionHandler(visitor).handle(action);
 	}
 
+	/**
+	 * Looks up the execution time annotated for the required interface and
+	 * the service in the {@link QoSAnnotationIndex} of the system.
+	 */
 	private String getTimeSpecification(Signature serviceToBeCalled) {
 		Interface requiredInterface = (Interface) serviceToBeCalled.eContainer();
-		String reqName = requiredInterface.getEntityName();
 		
-		EList<QoSAnnotations> annList = visitor.getContextWrapper().getPcmInstance().getSystem().getQosAnnotations_System();
-		for (QoSAnnotations ann : annList){
-			EList<SpecifiedQoSAnnotation> timeList = ann.getSpecifiedQoSAnnotations_QoSAnnotations();
-			for (SpecifiedQoSAnnotation annotation : timeList){
-				if(!(annotation instanceof SpecifiedExecutionTime)){
-					continue;
-				}
-				SpecifiedExecutionTime time = (SpecifiedExecutionTime)annotation;
-				Role role = time.getRole_SpecifiedQoSAnnotation();
-				
-				// TODO: I had to change RequiredRole to OperationRequiredRole for the code to compile.
-				// Check if this still works! FB, 13-06-2010
-				if (role instanceof OperationRequiredRole){
-					OperationRequiredRole reqRole = (OperationRequiredRole)role;
-					String reqIntName = reqRole.getRequiredInterface__OperationRequiredRole().getEntityName();
-					if (reqName.equals(reqIntName)){
-						String serviceName = time.getSignature_SpecifiedQoSAnnation().getEntityName();
-						if (serviceToBeCalled.getEntityName().equals(serviceName)){
-							return time.getSpecification_SpecifiedExecutionTime().getSpecification();
-						}
-					}
-				}
-				
-			}
+		SpecifiedExecutionTime time = visitor.getContextWrapper().getPcmInstance().getQoSAnnotationIndex()
+				.getExecutionTime(requiredInterface, serviceToBeCalled);
+		if (time != null){
+			return time.getSpecification_SpecifiedExecutionTime().getSpecification();
 		}
 		logger.warning("No time specification was found for external call "+serviceToBeCalled.getEntityName()+". I'm assuming a demand of 0.");
 		return "0";
@@ -1,9 +1,16 @@
 package de.uka.ipd.sdq.pcmsolver.handler;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.palladiosimulator.pcm.seff.ForkAction;
 import org.palladiosimulator.pcm.seff.ForkedBehaviour;
 import org.palladiosimulator.pcm.seff.SynchronisationPoint;
 
+import de.uka.ipd.sdq.pcmsolver.transformations.ContextWrapper;
+import de.uka.ipd.sdq.pcmsolver.visitors.ParallelTraversal;
 import de.uka.ipd.sdq.pcmsolver.visitors.SeffVisitor;
 
 public class ForkActionHandler {
@@ -13,18 +20,48 @@ public class ForkActionHandler {
 		visitor = seffVisitor;
 	}
 
+	/**
+	 * Visits the asynchronous and then the synchronous forked behaviours. If
+	 * enabled (see {@link ParallelTraversal}), the behaviours are visited
+	 * concurrently, each by its own {@link SeffVisitor} with a clone of the
+	 * current {@link ContextWrapper}. The behaviours then do not see the
+	 * inputs and contexts the others create. When merging, inputs and callee
+	 * contexts that the sequential visit would have shared are merged into one.
+	 * 
+	 * @param fork
+	 */
 	public void handle(ForkAction fork) {
-		for (ForkedBehaviour behaviour : fork
-				.getAsynchronousForkedBehaviours_ForkAction()) {
-			visitor.doSwitch(behaviour);
-		}
+		List<ForkedBehaviour> behaviours = new ArrayList<ForkedBehaviour>();
+		behaviours.addAll(fork.getAsynchronousForkedBehaviours_ForkAction());
 		SynchronisationPoint synch = fork
 				.getSynchronisingBehaviours_ForkAction();
 		if (synch != null) {
-			for (ForkedBehaviour behaviour : synch
-					.getSynchronousForkedBehaviours_SynchronisationPoint()) {
+			behaviours.addAll(synch.getSynchronousForkedBehaviours_SynchronisationPoint());
+		}
+
+		if (!ParallelTraversal.isEnabled(visitor.getContextWrapper(), behaviours.size())) {
+			for (ForkedBehaviour behaviour : behaviours) {
 				visitor.doSwitch(behaviour);
 			}
+			return;
 		}
+
+		List<ContextWrapper> contextWrappers = new ArrayList<ContextWrapper>();
+		final Map<ContextWrapper, ForkedBehaviour> forkedBehaviours = new IdentityHashMap<ContextWrapper, ForkedBehaviour>();
+		for (ForkedBehaviour behaviour : behaviours) {
+			ContextWrapper contextWrapper = (ContextWrapper) visitor.getContextWrapper().clone();
+			contextWrappers.add(contextWrapper);
+			forkedBehaviours.put(contextWrapper, behaviour);
+		}
+		ParallelTraversal.traverse(contextWrappers, new ParallelTraversal.Traversal<SeffVisitor>() {
+			@Override
+			public SeffVisitor traverse(ContextWrapper contextWrapper) {
+				// the behaviour belongs to the SEFF of the calling visitor
+				SeffVisitor forkVisitor = new SeffVisitor(null, contextWrapper, visitor.getCallGraph(),
+						visitor.getCallEntity());
+				forkVisitor.doSwitch(forkedBehaviours.get(contextWrapper));
+				return forkVisitor;
+			}
+		});
 	}
 }
@@ -3,21 +3,22 @@
  */
 package de.uka.ipd.sdq.pcmsolver.handler;
 
-import java.util.Iterator;
+import java.util.List;
 
 import org.apache.log4j.Logger;
-import org.eclipse.emf.common.util.EList;
-import org.palladiosimulator.pcm.allocation.AllocationContext;
 import org.palladiosimulator.pcm.core.CoreFactory;
 import org.palladiosimulator.pcm.core.PCMRandomVariable;
 import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
-import org.palladiosimulator.pcm.resourceenvironment.ResourceContainer;
 import org.palladiosimulator.pcm.resourcetype.ProcessingResourceType;
 import org.palladiosimulator.pcm.seff.InternalAction;
 import org.palladiosimulator.pcm.seff.seff_performance.ParametricResourceDemand;
 import org.palladiosimulator.solver.context.computed_allocation.ComputedAllocationFactory;
 import org.palladiosimulator.solver.context.computed_allocation.ResourceDemand;
 
+import de.uka.ipd.sdq.pcmsolver.models.PCMInstance;
+import de.uka.ipd.sdq.pcmsolver.transformations.ContextWrapper;
+import de.uka.ipd.sdq.pcmsolver.transformations.ResourceEnvironmentIndex;
+import de.uka.ipd.sdq.pcmsolver.transformations.SolvedResourceDemand;
 import de.uka.ipd.sdq.pcmsolver.visitors.ExpressionHelper;
 import de.uka.ipd.sdq.pcmsolver.visitors.SeffVisitor;
 import de.uka.ipd.sdq.stoex.Expression;
@@ -39,33 +40,25 @@ public class InternalActionHandler{
 	}
 
 	/**
+	 * The resources of the current resource container are matched by the
+	 * entity name of their type, see
+	 * {@link ResourceEnvironmentIndex#getProcessingResourceSpecifications(org.palladiosimulator.pcm.resourceenvironment.ResourceContainer, String)}.
+	 * 
 	 * @param action
 	 */
 	public void handle(InternalAction action) {
-		//EList<ParametricResourceDemand> resourceDem = action.getResourceDemand_Action()
-		
-		Iterator resourceDemands = action.getResourceDemand_Action().iterator();
-		while (resourceDemands.hasNext()) {
-			ParametricResourceDemand prd = (ParametricResourceDemand) resourceDemands.next();
+		List<ParametricResourceDemand> resourceDemands = action.getResourceDemand_Action();
+		for (int i = 0; i < resourceDemands.size(); i++) {
+			ParametricResourceDemand prd = resourceDemands.get(i);
 			ProcessingResourceType requiredResourceType = prd.getRequiredResource_ParametricResourceDemand();
 
-			if (requiredResourceType.getEntityName().equals("SystemExternalResource")){
-				EList<ResourceContainer> resConList = visitor.getContextWrapper().getPcmInstance().getResourceEnvironment().getResourceContainer_ResourceEnvironment();
-				for (ResourceContainer resCon : resConList){
-					if(resCon.getEntityName().equals("SystemExternalResourceContainer")){
-						ProcessingResourceSpecification prs = resCon.getActiveResourceSpecifications_ResourceContainer().get(0);
-						createActualResourceDemand(action, prd, prs);
-					}
-				}
+			if (PCMInstance.isSystemExternalResourceType(requiredResourceType)) {
+				ProcessingResourceSpecification prs = visitor.getContextWrapper().getPcmInstance().getSystemExternalResourceSpecification();
+				createActualResourceDemand(action, prd, prs);
 			} else {
-				EList<ProcessingResourceSpecification> resourceList = getResourceList();
-				for (ProcessingResourceSpecification prs : resourceList) {
-					ProcessingResourceType currentResourceType = prs
-							.getActiveResourceType_ActiveResourceSpecification();
-					if (currentResourceType.getEntityName().equals(
-							requiredResourceType.getEntityName())) {
-						createActualResourceDemand(action, prd, prs);
-					}
+				List<ProcessingResourceSpecification> resourceList = getResourceList(requiredResourceType);
+				for (int j = 0; j < resourceList.size(); j++) {
+					createActualResourceDemand(action, prd, resourceList.get(j));
 				}
 			}
 		}
@@ -89,7 +82,10 @@ public class InternalActionHandler{
 //		spec = spec.replaceAll("IntPMF", "DoublePDF");
 //		spec = spec.replaceAll("DoublePMF", "DoublePDF");
 		
-		String actResDemSpecification = getSolvedSpecification(spec, prs);
+		Expression actResDemExpression = getSolvedDemand(spec, prs);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Computed Actual Resource Demand: "+ExpressionHelper.printExpression(actResDemExpression));
+		}
 		
 //		actResDemSpecification = actResDemSpecification.replaceAll("IntPMF", "DoublePDF");
 //		actResDemSpecification = actResDemSpecification.replaceAll("DoublePMF", "DoublePDF");
@@ -104,12 +100,14 @@ public class InternalActionHandler{
 		ResourceDemand ard = compAllocationFactory.createResourceDemand();
 		ard.setParametricResourceDemand_ResourceDemand(prd);
 		
+		// the specification is printed when the computed contexts are saved
 		PCMRandomVariable rv = CoreFactory.eINSTANCE.createPCMRandomVariable();
-		rv.setSpecification(actResDemSpecification);
 		
 		//convertLiteralsToPDFs(rv);
 		
 		ard.setSpecification_ResourceDemand(rv);
+		// the solved expression is used instead of parsing the specification again
+		SolvedResourceDemand.attach(ard, actResDemExpression);
 		
 		visitor.getContextWrapper().getCompAllCtx()
 				.getResourceDemands_ComputedAllocationContext().add(ard);
@@ -119,14 +117,13 @@ public class InternalActionHandler{
 	 * Get a combined expression for the demanded time: specification / processing rate prs
 	 * 
 	 * As the expressions can be more complex, we added parentheses, resulting in 
-	 * (specification)/((prs)*1.0). This expression is then solved in the ContextWrapper of this.visitor. 
-	 * and finally again printed to a String. 
+	 * (specification)/((prs)*1.0). This expression is then solved once in the ContextWrapper of this.visitor. 
 	 * 
 	 * @param specification
 	 * @param prs
-	 * @return A String with the solved expression. 
+	 * @return The solved expression. 
 	 */
-	private String getSolvedSpecification(String specification, ProcessingResourceSpecification prs) {
+	private Expression getSolvedDemand(String specification, ProcessingResourceSpecification prs) {
 
 		// quickly incorporate processing rate
 		/* As both divisor and divident may evaluate to an integer and the first may be smaller  
@@ -136,27 +133,26 @@ public class InternalActionHandler{
 		specification = "("+ specification+") / (("+prs.getProcessingRate_ProcessingResourceSpecification().getSpecification()+")*1.0)";
 		logger.debug("Actual Resource Demand (Expression): "+specification);
 		
-		Expression solvedExpr = (Expression) ExpressionHelper
+		Expression solvedExpr = ExpressionHelper
 				.getSolvedExpression(specification, visitor.getContextWrapper());
-		
-		
-		
-		String solvedSpecification = ExpressionHelper
-				.getSolvedExpressionAsString(specification,
-						visitor.getContextWrapper());
-		logger.debug("Computed Actual Resource Demand: "+solvedSpecification);
-		return solvedSpecification;
+		if (solvedExpr == null) {
+			throw new RuntimeException("Could not solve resource demand "+specification);
+		}
+		return solvedExpr;
 	}
 
 	/**
-	 * @return
+	 * @param requiredResourceType
+	 * @return the resources of the current resource container with the
+	 *         required type.
 	 */
-	private EList<ProcessingResourceSpecification> getResourceList() {
-		AllocationContext ac = visitor.getContextWrapper().getAllCtx();
-		ResourceContainer currentResourceContainer = ac.getResourceContainer_AllocationContext();
-		EList<ProcessingResourceSpecification> resourceList = currentResourceContainer
-				.getActiveResourceSpecifications_ResourceContainer();
-		return resourceList;
+	private List<ProcessingResourceSpecification> getResourceList(ProcessingResourceType requiredResourceType) {
+		ContextWrapper contextWrapper = visitor.getContextWrapper();
+		ResourceEnvironmentIndex resourceEnvironmentIndex = contextWrapper.getPcmInstance()
+				.getResourceEnvironmentIndex();
+		return resourceEnvironmentIndex.getProcessingResourceSpecifications(
+				contextWrapper.getAllCtx().getResourceContainer_AllocationContext(),
+				requiredResourceType.getEntityName());
 	}
 
 }
@@ -0,0 +1,127 @@
+package de.uka.ipd.sdq.pcmsolver.models;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.palladiosimulator.analyzer.workflow.blackboard.PCMResourceSetPartition;
+import org.palladiosimulator.analyzer.workflow.configurations.AbstractPCMWorkflowRunConfiguration;
+
+/**
+ * A read-only set of models that several {@link PCMInstance}s are built upon,
+ * e.g., the repository all candidate architectures are derived from. The models
+ * are loaded once and all proxies are resolved, afterwards they are never
+ * modified. A {@link PCMInstance} created with a base model set only loads the
+ * models that are not part of the base and references the objects of the base
+ * directly, so candidates analysed side by side do not need their own copy of
+ * the base models.
+ *
+ * Models are shared per file, there is no copy-on-write of single objects. A
+ * candidate whose variant of a model file differs from the base, e.g., a
+ * repository changed by a single transformation rule, has to load that file
+ * completely on its own. Only the unchanged files are shared.
+ */
+public class BaseModelSet {
+
+	private final ResourceSet resourceSet;
+
+	/**
+	 * Loads the given model files and all model files referenced by them.
+	 *
+	 * @param modelFiles
+	 *            the paths of the base models, e.g., the repository.
+	 */
+	@SuppressWarnings("deprecation")
+	public BaseModelSet(List<String> modelFiles) {
+		PCMResourceSetPartition resourceSetPartition = new PCMResourceSetPartition();
+		resourceSetPartition.initialiseResourceSetEPackages(AbstractPCMWorkflowRunConfiguration.PCM_EPACKAGES);
+		for (String modelFile : modelFiles) {
+			resourceSetPartition.loadModel(modelFile);
+		}
+		resourceSetPartition.resolveAllProxies();
+		this.resourceSet = resourceSetPartition.getResourceSet();
+	}
+
+	/**
+	 * Takes over already loaded models, e.g., the models shared by the runs of
+	 * a session. The resources are removed from the resource set they have been
+	 * in before, so the models of that resource set must not be used anymore.
+	 *
+	 * @param resources
+	 *            the loaded base models. They must not reference models that
+	 *            are not part of the base.
+	 */
+	public BaseModelSet(Collection<Resource> resources) {
+		PCMResourceSetPartition resourceSetPartition = new PCMResourceSetPartition();
+		resourceSetPartition.initialiseResourceSetEPackages(AbstractPCMWorkflowRunConfiguration.PCM_EPACKAGES);
+		this.resourceSet = resourceSetPartition.getResourceSet();
+		resourceSet.getResources().addAll(new ArrayList<Resource>(resources));
+		EcoreUtil.resolveAll(resourceSet);
+	}
+
+	/**
+	 * @return the resource set holding the base models. It must not be
+	 *         modified.
+	 */
+	public ResourceSet getResourceSet() {
+		return resourceSet;
+	}
+
+	/**
+	 * @param eObject
+	 * @return true if the object is part of the base models and therefore must
+	 *         not be modified.
+	 */
+	public boolean contains(EObject eObject) {
+		Resource resource = eObject.eResource();
+		return resource != null && resource.getResourceSet() == resourceSet;
+	}
+
+	/**
+	 * @param type
+	 * @return all root elements of the given type in the base models.
+	 */
+	public <T extends EObject> List<T> getElements(Class<T> type) {
+		return getRootElements(resourceSet, type);
+	}
+
+	/**
+	 * Creates a new map from URI to resource for the resource set of a
+	 * {@link PCMInstance}. The resource set then finds the base models by
+	 * their URI and does not load them again.
+	 *
+	 * @return a new map that contains all base models.
+	 */
+	Map<URI, Resource> createURIResourceMap() {
+		Map<URI, Resource> uriResourceMap = new HashMap<URI, Resource>();
+		for (Resource resource : resourceSet.getResources()) {
+			uriResourceMap.put(resource.getURI(), resource);
+			uriResourceMap.put(resourceSet.getURIConverter().normalize(resource.getURI()), resource);
+		}
+		return uriResourceMap;
+	}
+
+	/**
+	 * @param resourceSet
+	 * @param type
+	 * @return all root elements of the given type in the resource set.
+	 */
+	static <T extends EObject> List<T> getRootElements(ResourceSet resourceSet, Class<T> type) {
+		List<T> elements = new ArrayList<T>();
+		for (Resource resource : resourceSet.getResources()) {
+			for (EObject root : resource.getContents()) {
+				if (type.isInstance(root)) {
+					elements.add(type.cast(root));
+				}
+			}
+		}
+		return elements;
+	}
+}
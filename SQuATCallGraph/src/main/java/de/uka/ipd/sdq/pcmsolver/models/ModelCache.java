@@ -0,0 +1,242 @@
+package de.uka.ipd.sdq.pcmsolver.models;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+
+/**
+ * A directory holding a binary serialization of parsed model files. The cache
+ * files are named after a SHA-256 hash over the URI and the content of the
+ * source file, so a changed source file simply misses the cache and outdated
+ * cache files are never read.
+ *
+ * Resources read from the cache keep the URI of their source file, references
+ * between the model files therefore stay the same as with the XMI files.
+ *
+ * The cache files of outdated sources are removed by size: whenever a cache
+ * file is written and the cache files together exceed the maximum size, the
+ * least recently used ones are deleted. Reading a cache file marks it as
+ * used. The directory may also be deleted at any time while no model is
+ * loaded.
+ */
+public class ModelCache {
+
+	private static Logger logger = Logger.getLogger(ModelCache.class.getName());
+
+	private final static String CACHE_FILE_EXTENSION = ".bin";
+
+	/** The default maximum size of all cache files, in bytes. */
+	public final static long DEFAULT_MAXIMUM_SIZE = 256L * 1024 * 1024;
+
+	private final File cacheDirectory;
+
+	private final long maximumSize;
+
+	/**
+	 * Creates a cache of {@link #DEFAULT_MAXIMUM_SIZE}.
+	 * 
+	 * @param cacheDirectoryPath
+	 *            the directory the cache files are stored in. It is created if
+	 *            it does not exist yet.
+	 */
+	public ModelCache(String cacheDirectoryPath) {
+		this(cacheDirectoryPath, DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * @param cacheDirectoryPath
+	 *            the directory the cache files are stored in. It is created if
+	 *            it does not exist yet.
+	 * @param maximumSize
+	 *            the maximum size of all cache files, in bytes. The most
+	 *            recently written file is kept even if it is larger.
+	 */
+	public ModelCache(String cacheDirectoryPath, long maximumSize) {
+		this.cacheDirectory = new File(cacheDirectoryPath);
+		this.cacheDirectory.mkdirs();
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * Loads the resource with the given URI into the resource set. If the
+	 * source file is unchanged since it was cached, the resource is read from
+	 * the cache. Otherwise the source file is parsed and the cache is updated.
+	 *
+	 * @param resourceSet
+	 *            the resource set the resource is created in.
+	 * @param uri
+	 *            the URI of the source file.
+	 * @return the loaded resource.
+	 * @throws IOException
+	 *             if the source file can not be read.
+	 */
+	public Resource getResource(ResourceSet resourceSet, URI uri) throws IOException {
+		byte[] content = readContent(resourceSet, uri);
+		File cacheFile = new File(cacheDirectory, hash(uri, content) + CACHE_FILE_EXTENSION);
+
+		if (cacheFile.isFile()) {
+			Resource resource = loadFromCache(resourceSet, uri, cacheFile);
+			if (resource != null) {
+				logger.debug("Loaded " + uri + " from cache file " + cacheFile.getName());
+				cacheFile.setLastModified(System.currentTimeMillis());
+				return resource;
+			}
+		}
+
+		Resource resource = resourceSet.createResource(uri);
+		if (resource == null) {
+			throw new IOException("No resource factory registered for " + uri);
+		}
+		resource.load(new ByteArrayInputStream(content), resourceSet.getLoadOptions());
+		if (writeToCache(resource, cacheFile)) {
+			removeLeastRecentlyUsed(cacheFile);
+		}
+		return resource;
+	}
+
+	private Resource loadFromCache(ResourceSet resourceSet, URI uri, File cacheFile) {
+		Resource resource = new BinaryResourceImpl(uri);
+		resourceSet.getResources().add(resource);
+		try (InputStream inputStream = new BufferedInputStream(new FileInputStream(cacheFile))) {
+			resource.load(inputStream, null);
+			return resource;
+		} catch (IOException e) {
+			logger.warn("Could not read cache file " + cacheFile + ": " + e.getMessage());
+			resourceSet.getResources().remove(resource);
+			cacheFile.delete();
+			return null;
+		}
+	}
+
+	/**
+	 * Writes to a temporary file first, so concurrent loaders never read a
+	 * partially written cache file. A failure is not fatal, the model is just
+	 * parsed again the next time.
+	 * 
+	 * @return true if the cache file was written.
+	 */
+	private boolean writeToCache(Resource resource, File cacheFile) {
+		File tempFile = null;
+		try {
+			tempFile = File.createTempFile(cacheFile.getName(), ".tmp", cacheDirectory);
+			try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+				BinaryResourceImpl.EObjectOutputStream eObjectOutputStream = new BinaryResourceImpl.EObjectOutputStream(
+						outputStream, null);
+				eObjectOutputStream.saveResource(resource);
+				eObjectOutputStream.flush();
+			}
+			Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			return true;
+		} catch (IOException e) {
+			logger.warn("Could not write cache file " + cacheFile + ": " + e.getMessage());
+			if (tempFile != null) {
+				tempFile.delete();
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Deletes the least recently used cache files until the cache files fit
+	 * into the maximum size. A loader that reads a deleted file concurrently
+	 * parses the model again.
+	 * 
+	 * @param writtenFile
+	 *            the cache file just written, it is kept.
+	 */
+	private synchronized void removeLeastRecentlyUsed(File writtenFile) {
+		File[] cacheFiles = cacheDirectory.listFiles(new FileFilter() {
+			@Override
+			public boolean accept(File file) {
+				return file.isFile() && file.getName().endsWith(CACHE_FILE_EXTENSION);
+			}
+		});
+		if (cacheFiles == null) {
+			return;
+		}
+		long size = 0;
+		for (File cacheFile : cacheFiles) {
+			size += cacheFile.length();
+		}
+		if (size <= maximumSize) {
+			return;
+		}
+		// read the times once, they may change while sorting
+		final Map<File, Long> times = new HashMap<File, Long>();
+		for (File cacheFile : cacheFiles) {
+			times.put(cacheFile, cacheFile.lastModified());
+		}
+		Arrays.sort(cacheFiles, new Comparator<File>() {
+			@Override
+			public int compare(File first, File second) {
+				return Long.compare(times.get(first), times.get(second));
+			}
+		});
+		for (File cacheFile : cacheFiles) {
+			if (size <= maximumSize) {
+				break;
+			}
+			if (!cacheFile.equals(writtenFile)) {
+				long length = cacheFile.length();
+				if (cacheFile.delete()) {
+					size -= length;
+					logger.debug("Removed cache file " + cacheFile.getName());
+				}
+			}
+		}
+	}
+
+	private byte[] readContent(ResourceSet resourceSet, URI uri) throws IOException {
+		try (InputStream inputStream = resourceSet.getURIConverter().createInputStream(uri)) {
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = inputStream.read(buffer)) != -1) {
+				content.write(buffer, 0, read);
+			}
+			return content.toByteArray();
+		}
+	}
+
+	/**
+	 * The URI is part of the hash, as references to other model files may be
+	 * stored relative to it.
+	 */
+	private String hash(URI uri, byte[] content) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(uri.toString().getBytes(StandardCharsets.UTF_8));
+			digest.update(content);
+			StringBuilder hash = new StringBuilder();
+			for (byte b : digest.digest()) {
+				hash.append(String.format("%02x", b));
+			}
+			return hash.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available.", e);
+		}
+	}
+}
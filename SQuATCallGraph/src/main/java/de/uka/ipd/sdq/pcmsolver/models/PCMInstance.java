@@ -1,22 +1,37 @@
 package de.uka.ipd.sdq.pcmsolver.models;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.palladiosimulator.analyzer.workflow.ConstantsContainer;
 import org.palladiosimulator.analyzer.workflow.blackboard.PCMResourceSetPartition;
 import org.palladiosimulator.analyzer.workflow.configurations.AbstractPCMWorkflowRunConfiguration;
 import org.palladiosimulator.pcm.allocation.Allocation;
+import org.palladiosimulator.pcm.allocation.AllocationContext;
+import org.palladiosimulator.pcm.core.composition.AssemblyContext;
+import org.palladiosimulator.pcm.core.CoreFactory;
+import org.palladiosimulator.pcm.core.PCMRandomVariable;
 import org.palladiosimulator.pcm.repository.Repository;
+import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
 import org.palladiosimulator.pcm.resourceenvironment.ResourceContainer;
 import org.palladiosimulator.pcm.resourceenvironment.ResourceEnvironment;
+import org.palladiosimulator.pcm.resourceenvironment.ResourceenvironmentFactory;
+import org.palladiosimulator.pcm.resourcetype.ProcessingResourceType;
 import org.palladiosimulator.pcm.resourcetype.ResourceRepository;
+import org.palladiosimulator.pcm.resourcetype.ResourceType;
+import org.palladiosimulator.pcm.resourcetype.ResourcetypeFactory;
 import org.palladiosimulator.pcm.usagemodel.UsageModel;
 import org.palladiosimulator.solver.context.aggregatedUsageContext.AggregatedUsageContextFactory;
 import org.palladiosimulator.solver.context.aggregatedUsageContext.ComputedAggregatedUsage;
@@ -24,13 +39,27 @@ import org.palladiosimulator.solver.context.computed_allocation.ComputedAllocati
 import org.palladiosimulator.solver.context.computed_allocation.ComputedAllocationContext;
 import org.palladiosimulator.solver.context.computed_allocation.ComputedAllocationFactory;
 import org.palladiosimulator.solver.context.computed_usage.ComputedUsage;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsageContext;
 import org.palladiosimulator.solver.context.computed_usage.ComputedUsageFactory;
-
+import org.palladiosimulator.solver.context.computed_usage.Input;
+
+import de.uka.ipd.sdq.pcmsolver.transformations.ComputedAllocationContextIndex;
+import de.uka.ipd.sdq.pcmsolver.transformations.ComputedContextMerge;
+import de.uka.ipd.sdq.pcmsolver.transformations.ComputedUsageContextIndex;
+import de.uka.ipd.sdq.pcmsolver.transformations.ConnectorIndex;
+import de.uka.ipd.sdq.pcmsolver.transformations.QoSAnnotationIndex;
+import de.uka.ipd.sdq.pcmsolver.transformations.ResourceEnvironmentIndex;
+import de.uka.ipd.sdq.pcmsolver.transformations.SeffIndex;
+import de.uka.ipd.sdq.pcmsolver.transformations.SolvedResourceDemand;
 import de.uka.ipd.sdq.pcmsolver.transformations.EMFHelper;
 
 
 public class PCMInstance {
 
+	private final static String SYSTEM_EXTERNAL_RESOURCE_TYPE_NAME = "SystemExternalResource";
+
+	private final static String SYSTEM_EXTERNAL_RESOURCE_CONTAINER_NAME = "SystemExternalResourceContainer";
+
 	private ComputedUsage computedUsage = ComputedUsageFactory.eINSTANCE.createComputedUsage();;
 
 	private ComputedAllocation actualAllocation = ComputedAllocationFactory.eINSTANCE.createComputedAllocation();
@@ -41,12 +70,82 @@ public class PCMInstance {
 	
 	private PCMResourceSetPartition resourceSetPartition;
 
+	private BaseModelSet baseModelSet;
+
+	private ProcessingResourceSpecification systemExternalResourceSpecification;
+
+	/**
+	 * The instance that loaded the models, differs from this for instances
+	 * created by {@link #fork()}.
+	 */
+	private PCMInstance root = this;
+
+	private boolean proxiesResolved = false;
+
+	private boolean parallelTraversal = false;
+
+	/**
+	 * The allocation contexts by the id of their assembly context, built on
+	 * first use by the root instance.
+	 */
+	private Map<String, List<AllocationContext>> allocationContextIndex = null;
+
+	private ConnectorIndex connectorIndex = null;
+
+	private SeffIndex seffIndex = null;
+
+	private ResourceEnvironmentIndex resourceEnvironmentIndex = null;
+
+	private QoSAnnotationIndex qosAnnotationIndex = null;
+
+	private ComputedUsageContextIndex computedUsageContextIndex = null;
+
+	private ComputedAllocationContextIndex computedAllocationContextIndex = null;
+
+	private Map<String, Long> modelLoadTimes = Collections.emptyMap();
+
+	/**
+	 * Loads the usage model and the allocation given by the properties
+	 * Filename_UsageModel and Filename_AllocationModel. If the property
+	 * Parallel_Loading is set to true, the referenced model files are parsed
+	 * concurrently and proxies are resolved on demand (see
+	 * {@link PCMModelLoader}). If the property Model_Cache_Path is set, the
+	 * model files are read through a {@link ModelCache} in that directory.
+	 * If the property Parallel_Traversal is set to true, the SEFFs of
+	 * component replicas and forked behaviours are traversed concurrently (see
+	 * {@link #isParallelTraversal()}).
+	 * 
+	 * @param config
+	 */
 	public PCMInstance(Properties config) {
+		this(config, null);
+	}
+
+	/**
+	 * Like {@link #PCMInstance(Properties)}, but the models are loaded as an
+	 * overlay of the given base models. Model files that are part of the base
+	 * are not loaded again, but the objects of the base are referenced
+	 * directly. The base models are never modified by this instance, so many
+	 * instances can share the same base.
+	 * 
+	 * @param config
+	 * @param baseModelSet
+	 *            the shared base models, e.g., the repository.
+	 */
+	public PCMInstance(Properties config, BaseModelSet baseModelSet) {
 		this.storagePath = config.getProperty("Storage_Path");
+		this.baseModelSet = baseModelSet;
 		ArrayList <String> fileList = new ArrayList <String>();
 		fileList.add(config.getProperty("Filename_UsageModel"));
 		fileList.add(config.getProperty("Filename_AllocationModel"));
-		createResourceSetPartition(fileList);
+		boolean parallelLoading = Boolean.parseBoolean(config.getProperty("Parallel_Loading"));
+		String modelCachePath = config.getProperty("Model_Cache_Path");
+		this.parallelTraversal = Boolean.parseBoolean(config.getProperty("Parallel_Traversal"));
+		if (parallelLoading || modelCachePath != null) {
+			loadResourceSetPartition(fileList, parallelLoading, modelCachePath);
+		} else {
+			createResourceSetPartition(fileList);
+		}
 //		loadFromFiles(config);
 	}
 
@@ -112,16 +211,314 @@ public class PCMInstance {
 	@SuppressWarnings("deprecation")
 	private void createResourceSetPartition(List<String> modelFiles) {
 	
-		resourceSetPartition = new PCMResourceSetPartition();
-		resourceSetPartition.initialiseResourceSetEPackages(AbstractPCMWorkflowRunConfiguration.PCM_EPACKAGES);
+		initialiseResourceSetPartition();
 		for (String modelFile : modelFiles) {
 			resourceSetPartition.loadModel(modelFile);
 		}
 		resourceSetPartition.resolveAllProxies();
 
 	}
+
+	/**
+	 * Creates the resource set partition, which finds the base models if there
+	 * are any.
+	 */
+	@SuppressWarnings("deprecation")
+	private void initialiseResourceSetPartition() {
+		resourceSetPartition = new PCMResourceSetPartition();
+		resourceSetPartition.initialiseResourceSetEPackages(AbstractPCMWorkflowRunConfiguration.PCM_EPACKAGES);
+		ResourceSet resourceSet = resourceSetPartition.getResourceSet();
+		if (baseModelSet != null) {
+			// the base models are found by their URI, but stay in the resource set of the base
+			((ResourceSetImpl) resourceSet).setURIResourceMap(baseModelSet.createURIResourceMap());
+		}
+	}
+
+	/**
+	 * Creates a view on the models of the given instance.
+	 * 
+	 * @param origin
+	 */
+	private PCMInstance(PCMInstance origin) {
+		this.storagePath = origin.storagePath;
+		this.resourceSetPartition = origin.resourceSetPartition;
+		this.baseModelSet = origin.baseModelSet;
+		this.modelLoadTimes = origin.modelLoadTimes;
+		this.parallelTraversal = origin.parallelTraversal;
+		this.root = origin.root;
+	}
+
+	/**
+	 * Creates an instance that shares the models with this instance, but has
+	 * its own, empty computed contexts. Forks of the same instance can be
+	 * analysed concurrently, as long as the models are not modified. To allow
+	 * this, all proxies are resolved when the first fork is created. The
+	 * indexes of the models, like {@link #getConnectorIndex()}, are built once
+	 * and shared by all forks, so they are thread-safe. The indexes of the
+	 * computed contexts belong to a single instance and are not. The results
+	 * of a fork can be added to this instance with
+	 * {@link #join(PCMInstance)}.
+	 * 
+	 * @return the new view on the models.
+	 */
+	public PCMInstance fork() {
+		root.resolveAllProxies();
+		return new PCMInstance(this);
+	}
+
+	/**
+	 * Moves the computed contexts of a fork to this instance. They are
+	 * appended after the computed contexts of this instance. As the fork did
+	 * not see the contexts of this instance, it may have created contexts a
+	 * sequential analysis would have reused: a computed usage context whose
+	 * input is matched by an existing context of the same assembly context
+	 * (see {@link ComputedUsageContextIndex}), and a computed allocation
+	 * context for an existing pair of allocation context and usage context.
+	 * Their contents are added to the existing context instead (see
+	 * {@link ComputedContextMerge}).
+	 * 
+	 * @param fork
+	 *            an instance created by {@link #fork()}.
+	 */
+	public void join(PCMInstance fork) {
+		Map<EObject, EObject> reused = new HashMap<EObject, EObject>();
+		for (ComputedUsageContext cuc : new ArrayList<ComputedUsageContext>(
+				fork.getComputedUsage().getUsageContexts_ComputedUsage())) {
+			Input input = cuc.getInput_ComputedUsageContext();
+			AssemblyContext assemblyContext = cuc.getAssemblyContext_ComputedUsageContext();
+			ComputedUsageContext existing;
+			if (input == null || input.getParameterChacterisations_Input().isEmpty()) {
+				existing = getComputedUsageContextIndex().findWithoutInput(assemblyContext);
+			} else {
+				existing = getComputedUsageContextIndex().find(assemblyContext,
+						input.getParameterChacterisations_Input());
+			}
+			if (existing == null) {
+				computedUsage.getUsageContexts_ComputedUsage().add(cuc);
+			} else {
+				ComputedContextMerge.addContents(existing, cuc, Collections.<EObject, EObject> emptyMap(), null);
+				reused.put(cuc, existing);
+			}
+		}
+		for (ComputedAllocationContext cac : new ArrayList<ComputedAllocationContext>(
+				fork.getComputedAllocation().getComputedAllocationContexts_ComputedAllocation())) {
+			EObject usageContext = reused.get(cac.getUsageContext_ComputedAllocationContext());
+			if (usageContext != null) {
+				cac.setUsageContext_ComputedAllocationContext((ComputedUsageContext) usageContext);
+			}
+			ComputedAllocationContext existing = getComputedAllocationContextIndex().find(
+					cac.getAllocationContext_ComputedAllocationContext(), cac.getUsageContext_ComputedAllocationContext());
+			if (existing == null) {
+				actualAllocation.getComputedAllocationContexts_ComputedAllocation().add(cac);
+			} else {
+				ComputedContextMerge.addContents(existing, cac, Collections.<EObject, EObject> emptyMap(), null);
+			}
+		}
+	}
+
+	/**
+	 * @return true if the SEFFs of the replicas of a component, i.e., of all
+	 *         allocation contexts of an assembly context, and the forked
+	 *         behaviours of a fork action are traversed concurrently.
+	 */
+	public boolean isParallelTraversal() {
+		return parallelTraversal;
+	}
+
+	/**
+	 * @param assemblyContext
+	 * @return the allocation contexts the assembly context is allocated to, in
+	 *         the order of the allocation. The list is empty if the assembly
+	 *         context is not allocated, e.g., because it is part of a
+	 *         composite component, and must not be modified.
+	 */
+	public List<AllocationContext> getAllocationContexts(AssemblyContext assemblyContext) {
+		List<AllocationContext> allocationContexts = root.getAllocationContextIndex().get(assemblyContext.getId());
+		if (allocationContexts == null) {
+			return Collections.emptyList();
+		}
+		return allocationContexts;
+	}
+
+	/**
+	 * Indexes the allocation once, the index is shared with all forks.
+	 */
+	private synchronized Map<String, List<AllocationContext>> getAllocationContextIndex() {
+		if (allocationContextIndex == null) {
+			Map<String, List<AllocationContext>> index = new HashMap<String, List<AllocationContext>>();
+			for (AllocationContext allCtx : getAllocation().getAllocationContexts_Allocation()) {
+				String assCtxId = allCtx.getAssemblyContext_AllocationContext().getId();
+				List<AllocationContext> allocationContexts = index.get(assCtxId);
+				if (allocationContexts == null) {
+					allocationContexts = new ArrayList<AllocationContext>();
+					index.put(assCtxId, allocationContexts);
+				}
+				allocationContexts.add(allCtx);
+			}
+			allocationContextIndex = index;
+		}
+		return allocationContextIndex;
+	}
+
+	/**
+	 * @return the index of the connectors of the system and the composite
+	 *         components, shared with all forks (see {@link #fork()}).
+	 */
+	public ConnectorIndex getConnectorIndex() {
+		return root.getRootConnectorIndex();
+	}
+
+	private synchronized ConnectorIndex getRootConnectorIndex() {
+		if (connectorIndex == null) {
+			connectorIndex = new ConnectorIndex();
+		}
+		return connectorIndex;
+	}
+
+	/**
+	 * @return the index of the SEFFs that handle the calls, shared with all
+	 *         forks (see {@link #fork()}).
+	 */
+	public SeffIndex getSeffIndex() {
+		return root.getRootSeffIndex();
+	}
+
+	private synchronized SeffIndex getRootSeffIndex() {
+		if (seffIndex == null) {
+			seffIndex = new SeffIndex();
+		}
+		return seffIndex;
+	}
+
+	/**
+	 * @return the index of the resource environment, shared with all forks
+	 *         (see {@link #fork()}).
+	 */
+	public ResourceEnvironmentIndex getResourceEnvironmentIndex() {
+		return root.getRootResourceEnvironmentIndex();
+	}
+
+	private synchronized ResourceEnvironmentIndex getRootResourceEnvironmentIndex() {
+		if (resourceEnvironmentIndex == null) {
+			resourceEnvironmentIndex = new ResourceEnvironmentIndex(getResourceEnvironment());
+		}
+		return resourceEnvironmentIndex;
+	}
+
+	/**
+	 * @return the index of the QoS annotations of the system, shared with all
+	 *         forks (see {@link #fork()}).
+	 */
+	public QoSAnnotationIndex getQoSAnnotationIndex() {
+		return root.getRootQoSAnnotationIndex();
+	}
+
+	private synchronized QoSAnnotationIndex getRootQoSAnnotationIndex() {
+		if (qosAnnotationIndex == null) {
+			qosAnnotationIndex = new QoSAnnotationIndex(getSystem());
+		}
+		return qosAnnotationIndex;
+	}
+
+	/**
+	 * @return the index of the computed usage contexts of this instance. Each
+	 *         fork has its own index.
+	 */
+	public ComputedUsageContextIndex getComputedUsageContextIndex() {
+		if (computedUsageContextIndex == null || !computedUsageContextIndex.isIndexOf(computedUsage)) {
+			computedUsageContextIndex = new ComputedUsageContextIndex(computedUsage);
+		}
+		return computedUsageContextIndex;
+	}
+
+	/**
+	 * @return the index of the computed allocation contexts of this instance.
+	 *         Each fork has its own index.
+	 */
+	public ComputedAllocationContextIndex getComputedAllocationContextIndex() {
+		if (computedAllocationContextIndex == null
+				|| !computedAllocationContextIndex.isIndexOf(actualAllocation)) {
+			computedAllocationContextIndex = new ComputedAllocationContextIndex(actualAllocation);
+		}
+		return computedAllocationContextIndex;
+	}
+
+	private synchronized void resolveAllProxies() {
+		if (!proxiesResolved) {
+			EcoreUtil.resolveAll(getResourceSet());
+			proxiesResolved = true;
+		}
+	}
+
+	/**
+	 * Loads PCM Model contents with a {@link PCMModelLoader}. In parallel mode
+	 * all referenced model files are parsed concurrently and proxies are
+	 * resolved when they are first navigated. Otherwise the files are loaded
+	 * one after the other and all proxies are resolved afterwards.
+	 * 
+	 * @param modelFiles List of Strings containing Usage and Allocation FileNames
+	 * @param parallelLoading true to load the files concurrently
+	 * @param modelCachePath the directory of the model cache, or null
+	 */
+	@SuppressWarnings("deprecation")
+	private void loadResourceSetPartition(List<String> modelFiles, boolean parallelLoading, String modelCachePath) {
+		initialiseResourceSetPartition();
+		PCMModelLoader loader = new PCMModelLoader(AbstractPCMWorkflowRunConfiguration.PCM_EPACKAGES,
+				parallelLoading ? Runtime.getRuntime().availableProcessors() : 1);
+		if (modelCachePath != null) {
+			loader.setModelCache(new ModelCache(modelCachePath));
+		}
+		loader.load(resourceSetPartition.getResourceSet(), modelFiles);
+		modelLoadTimes = loader.getLoadTimes();
+		if (!parallelLoading) {
+			resourceSetPartition.resolveAllProxies();
+		}
+	}
+
+	/**
+	 * @return the load time in milliseconds of each model file, keyed by its
+	 *         URI. Only filled if the models have been loaded by a
+	 *         {@link PCMModelLoader}.
+	 */
+	public Map<String, Long> getModelLoadTimes() {
+		return modelLoadTimes;
+	}
+
+	/**
+	 * @return the resource set holding all loaded models.
+	 */
+	public ResourceSet getResourceSet() {
+		return resourceSetPartition.getResourceSet();
+	}
 	
+	/**
+	 * @return the base models this instance is an overlay of, or null.
+	 */
+	public BaseModelSet getBaseModelSet() {
+		return baseModelSet;
+	}
+
+	/**
+	 * Finds the root elements of the given type in the models of this
+	 * instance, followed by the ones of the base models.
+	 */
+	private <T extends EObject> List<T> getElements(Class<T> type) {
+		List<T> elements = BaseModelSet.getRootElements(getResourceSet(), type);
+		for (T element : baseModelSet.getElements(type)) {
+			if (!elements.contains(element)) {
+				elements.add(element);
+			}
+		}
+		if (elements.isEmpty()) {
+			throw new RuntimeException("Failed to retrieve PCM model element " + type.getSimpleName());
+		}
+		return elements;
+	}
+
 	public Allocation getAllocation() {
+		if (baseModelSet != null) {
+			return getElements(Allocation.class).get(0);
+		}
 		return resourceSetPartition.getAllocation();
 	}
 
@@ -131,6 +528,9 @@ public class PCMInstance {
 //	}
 
 	public List<Repository> getRepositories() {
+		if (baseModelSet != null) {
+			return getElements(Repository.class);
+		}
 		return resourceSetPartition.getRepositories();
 	}
 
@@ -139,6 +539,9 @@ public class PCMInstance {
 //	}
 
 	public ResourceEnvironment getResourceEnvironment() {
+		if (baseModelSet != null) {
+			return getElements(ResourceEnvironment.class).get(0);
+		}
 		return resourceSetPartition.getResourceEnvironment();
 	}
 
@@ -147,6 +550,9 @@ public class PCMInstance {
 //	}
 
 	public ResourceRepository getResourceRepository() {
+		if (baseModelSet != null) {
+			return getElements(ResourceRepository.class).get(0);
+		}
 		return resourceSetPartition.getResourceTypeRepository();
 	}
 
@@ -155,6 +561,9 @@ public class PCMInstance {
 //	}
 
 	public org.palladiosimulator.pcm.system.System getSystem() {
+		if (baseModelSet != null) {
+			return getElements(org.palladiosimulator.pcm.system.System.class).get(0);
+		}
 		return resourceSetPartition.getSystem();
 	}
 
@@ -163,6 +572,9 @@ public class PCMInstance {
 //	}
 
 	public UsageModel getUsageModel() {
+		if (baseModelSet != null) {
+			return getElements(UsageModel.class).get(0);
+		}
 		return resourceSetPartition.getUsageModel();
 	}
 
@@ -170,6 +582,12 @@ public class PCMInstance {
 //		this.usageModel = usageModel;
 //	}
 
+	/**
+	 * @return the computed allocation contexts. The specifications of their
+	 *         resource demands are only set after
+	 *         {@link SolvedResourceDemand#printSpecifications(ComputedAllocation)},
+	 *         which {@link #saveToFiles(String)} calls.
+	 */
 	public ComputedAllocation getComputedAllocation() {
 		return actualAllocation;
 	}
@@ -202,6 +620,14 @@ public class PCMInstance {
 //		this.usageModel = ((UsageModel) loadFromXMIFile(filename));
 //	}
 
+	/**
+	 * Saves the models and the computed contexts. The computed demands of
+	 * system external calls refer to ParametricResourceDemands of InternalActions
+	 * that are not part of any SEFF, so the saved computed allocation contains
+	 * unresolvable references for them.
+	 * 
+	 * @param fileNamePrefix
+	 */
 	public void saveToFiles(String fileNamePrefix) {
 		fileNamePrefix = storagePath + "\\" + fileNamePrefix;
 		saveToXMIFile(getAllocation(), fileNamePrefix + ".allocation");
@@ -216,6 +642,7 @@ public class PCMInstance {
 		saveToXMIFile(getUsageModel(), fileNamePrefix + ".usagemodel");
 
 		saveToXMIFile(computedUsage, fileNamePrefix + ".usage");
+		SolvedResourceDemand.printSpecifications(actualAllocation);
 		saveToXMIFile(actualAllocation, fileNamePrefix + ".actualallocation");
 
 	}
@@ -345,6 +772,83 @@ public class PCMInstance {
 		return usedRCList;
 	}
 
+	/**
+	 * Get the processing resource that carries the demands of system external
+	 * calls. The resource container is added to the resource environment on
+	 * the first call. The resource type is only created if the resource
+	 * repository does not contain it yet, so repeated analyses of the same
+	 * repository do not add further types. Models that are part of the
+	 * {@link BaseModelSet} are not modified, the container and type are then
+	 * only kept by this instance.
+	 * 
+	 * @return the processing resource specification of the system external
+	 *         resource container.
+	 */
+	public synchronized ProcessingResourceSpecification getSystemExternalResourceSpecification() {
+		if (root != this) {
+			return root.getSystemExternalResourceSpecification();
+		}
+		if (systemExternalResourceSpecification != null) {
+			return systemExternalResourceSpecification;
+		}
+		ResourceContainer existing = getResourceEnvironmentIndex()
+				.getResourceContainerByName(SYSTEM_EXTERNAL_RESOURCE_CONTAINER_NAME);
+		if (existing != null) {
+			systemExternalResourceSpecification = existing.getActiveResourceSpecifications_ResourceContainer().get(0);
+			return systemExternalResourceSpecification;
+		}
+
+		ProcessingResourceSpecification res = ResourceenvironmentFactory.eINSTANCE.createProcessingResourceSpecification();
+		res.setActiveResourceType_ActiveResourceSpecification(getSystemExternalResourceType());
+
+		PCMRandomVariable rv = CoreFactory.eINSTANCE.createPCMRandomVariable();
+		rv.setSpecification("1.0");
+		res.setProcessingRate_ProcessingResourceSpecification(rv);
+		// TODO: FIX
+		//res.setSchedulingPolicy(SchedulingPolicy.PROCESSOR_SHARING);
+
+		ResourceContainer resCon = ResourceenvironmentFactory.eINSTANCE.createResourceContainer();
+		resCon.setEntityName(SYSTEM_EXTERNAL_RESOURCE_CONTAINER_NAME);
+		resCon.getActiveResourceSpecifications_ResourceContainer().add(res);
+		if (isModifiable(getResourceEnvironment())) {
+			getResourceEnvironment().getResourceContainer_ResourceEnvironment().add(resCon);
+			getResourceEnvironmentIndex().addResourceContainer(resCon);
+		}
+		systemExternalResourceSpecification = res;
+		return res;
+	}
+
+	/**
+	 * @param resourceType
+	 * @return true if demands of the resource type are issued to the system
+	 *         external resource, see
+	 *         {@link #getSystemExternalResourceSpecification()}.
+	 */
+	public static boolean isSystemExternalResourceType(ProcessingResourceType resourceType) {
+		return SYSTEM_EXTERNAL_RESOURCE_TYPE_NAME.equals(resourceType.getEntityName());
+	}
+
+	private ProcessingResourceType getSystemExternalResourceType() {
+		ResourceRepository resourceRepository = getResourceRepository();
+		List<ResourceType> resourceTypes = resourceRepository.getAvailableResourceTypes_ResourceRepository();
+		for (ResourceType resourceType : resourceTypes) {
+			if (resourceType instanceof ProcessingResourceType
+					&& isSystemExternalResourceType((ProcessingResourceType) resourceType)) {
+				return (ProcessingResourceType) resourceType;
+			}
+		}
+		ProcessingResourceType resType = ResourcetypeFactory.eINSTANCE.createProcessingResourceType();
+		resType.setEntityName(SYSTEM_EXTERNAL_RESOURCE_TYPE_NAME);
+		if (isModifiable(resourceRepository)) {
+			resourceTypes.add(resType);
+		}
+		return resType;
+	}
+
+	private boolean isModifiable(EObject eObject) {
+		return baseModelSet == null || !baseModelSet.contains(eObject);
+	}
+
 	/**
 	 * @return the computedAggregatedUsage
 	 */
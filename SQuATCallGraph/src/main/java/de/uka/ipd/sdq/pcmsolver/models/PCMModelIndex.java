@@ -0,0 +1,298 @@
+package de.uka.ipd.sdq.pcmsolver.models;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * A lightweight index of PCM model files. The XMI files are read with a
+ * streaming parser and only the id, type, name and containing element of each
+ * model element are kept, no EMF objects are created. This allows to find the
+ * usage scenarios and entry level system calls of a model and to check that
+ * all references between the model files can be resolved, before the model is
+ * loaded as {@link PCMInstance}.
+ *
+ * The type of an element is the type given in the file, e.g.,
+ * EntryLevelSystemCall. If the file does not state the type, because it is the
+ * declared type of the containing feature, the name of the feature is used
+ * instead, e.g., usageScenario_UsageModel.
+ */
+public class PCMModelIndex {
+	private final static String XSI_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
+	private final static String USAGE_SCENARIO_FEATURE = "usageScenario_UsageModel";
+	private final static String ENTRY_LEVEL_SYSTEM_CALL_TYPE = "EntryLevelSystemCall";
+
+	private final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+	private final Map<String, Element> elements = new LinkedHashMap<String, Element>();
+	private final Set<String> indexedFiles = new LinkedHashSet<String>();
+	private final Set<Reference> references = new LinkedHashSet<Reference>();
+
+	/**
+	 * Indexes the given model files and all files referenced by them. Files
+	 * that are not stored in the file system, like the models Palladio
+	 * provides itself, are not indexed.
+	 *
+	 * @param modelFiles
+	 *            the paths of the model files, e.g., the usage model and the
+	 *            allocation.
+	 * @return the index.
+	 * @throws IOException
+	 *             if a file can not be read or is not well-formed.
+	 */
+	public static PCMModelIndex create(List<String> modelFiles) throws IOException {
+		PCMModelIndex index = new PCMModelIndex();
+		Deque<String> pending = new ArrayDeque<String>();
+		for (String modelFile : modelFiles) {
+			pending.add(new File(modelFile).getCanonicalPath());
+		}
+		while (!pending.isEmpty()) {
+			String file = pending.poll();
+			if (index.indexedFiles.contains(file) || !new File(file).isFile()) {
+				continue;
+			}
+			index.index(file);
+			for (Reference reference : index.references) {
+				if (reference.file != null && !index.indexedFiles.contains(reference.file)) {
+					pending.add(reference.file);
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Adds a single model file to the index.
+	 *
+	 * @param modelFile
+	 *            the path of the model file.
+	 * @throws IOException
+	 *             if the file can not be read or is not well-formed.
+	 */
+	public void index(String modelFile) throws IOException {
+		File file = new File(modelFile).getCanonicalFile();
+		indexedFiles.add(file.getPath());
+		try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+			XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+			try {
+				index(reader, file);
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException("Could not index " + file + ": " + e.getMessage(), e);
+		}
+	}
+
+	private void index(XMLStreamReader reader, File file) throws XMLStreamException {
+		// the ids of the enclosing elements, elements without id inherit the id of their container
+		Deque<String> containerIds = new ArrayDeque<String>();
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				String containerId = containerIds.isEmpty() || containerIds.peek().isEmpty() ? null
+						: containerIds.peek();
+				String id = reader.getAttributeValue(null, "id");
+				String href = reader.getAttributeValue(null, "href");
+				if (id != null) {
+					String type = reader.getAttributeValue(XSI_NAMESPACE, "type");
+					type = type != null ? type.substring(type.indexOf(':') + 1) : reader.getLocalName();
+					String name = reader.getAttributeValue(null, "entityName");
+					elements.put(id, new Element(id, type, name, containerId, file.getPath()));
+					containerIds.push(id);
+				} else {
+					containerIds.push(containerId == null ? "" : containerId);
+				}
+				if (href != null) {
+					references.add(new Reference(file, href));
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				containerIds.pop();
+			}
+		}
+	}
+
+	/**
+	 * @param id
+	 * @return the indexed element with the given id, or null.
+	 */
+	public Element getElement(String id) {
+		return elements.get(id);
+	}
+
+	/**
+	 * @return the usage scenarios in the order they appear in the files.
+	 */
+	public List<Element> getUsageScenarios() {
+		List<Element> usageScenarios = new ArrayList<Element>();
+		for (Element element : elements.values()) {
+			if (USAGE_SCENARIO_FEATURE.equals(element.getType()) || "UsageScenario".equals(element.getType())) {
+				usageScenarios.add(element);
+			}
+		}
+		return usageScenarios;
+	}
+
+	/**
+	 * @param usageScenarioId
+	 * @return the entry level system calls of the usage scenario, including
+	 *         the ones in nested behaviours, in the order they appear in the
+	 *         file.
+	 */
+	public List<Element> getEntryLevelSystemCalls(String usageScenarioId) {
+		List<Element> calls = new ArrayList<Element>();
+		for (Element element : elements.values()) {
+			if (ENTRY_LEVEL_SYSTEM_CALL_TYPE.equals(element.getType()) && isContainedIn(element, usageScenarioId)) {
+				calls.add(element);
+			}
+		}
+		return calls;
+	}
+
+	/**
+	 * @return the references to other model files whose target is not in the
+	 *         index, given as file and id. References to models that are not
+	 *         stored in the file system are not checked.
+	 */
+	public List<String> getUnresolvedReferences() {
+		List<String> unresolved = new ArrayList<String>();
+		for (Reference reference : references) {
+			if (reference.file == null) {
+				continue;
+			}
+			boolean resolved;
+			if (reference.id.startsWith("/")) {
+				// a path within the file, e.g., the root element, only the file is checked
+				resolved = indexedFiles.contains(reference.file);
+			} else {
+				Element target = elements.get(reference.id);
+				resolved = target != null && target.getFile().equals(reference.file);
+			}
+			if (!resolved) {
+				unresolved.add(reference.file + "#" + reference.id);
+			}
+		}
+		return unresolved;
+	}
+
+	private boolean isContainedIn(Element element, String containerId) {
+		String current = element.getContainerId();
+		while (current != null) {
+			if (current.equals(containerId)) {
+				return true;
+			}
+			Element container = elements.get(current);
+			current = container == null ? null : container.getContainerId();
+		}
+		return false;
+	}
+
+	/**
+	 * An indexed model element.
+	 */
+	public static class Element {
+		private final String id;
+		private final String type;
+		private final String name;
+		private final String containerId;
+		private final String file;
+
+		Element(String id, String type, String name, String containerId, String file) {
+			this.id = id;
+			this.type = type;
+			this.name = name;
+			this.containerId = containerId;
+			this.file = file;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public String getType() {
+			return type;
+		}
+
+		/**
+		 * @return the entity name, or null if the element has none.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the id of the closest containing element with an id, or
+		 *         null for root elements.
+		 */
+		public String getContainerId() {
+			return containerId;
+		}
+
+		public String getFile() {
+			return file;
+		}
+
+		@Override
+		public String toString() {
+			return type + " " + name + " (" + id + ")";
+		}
+	}
+
+	/**
+	 * A reference to an element in another model file. The file is null if it
+	 * is not stored in the file system.
+	 */
+	private static class Reference {
+		private final String file;
+		private final String id;
+
+		Reference(File source, String href) {
+			int separator = href.indexOf('#');
+			String path = separator < 0 ? href : href.substring(0, separator);
+			this.id = separator < 0 ? "" : href.substring(separator + 1);
+			if (path.isEmpty()) {
+				this.file = source.getPath();
+			} else if (path.contains(":")) {
+				this.file = null;
+			} else {
+				this.file = getCanonicalPath(new File(source.getParentFile(), path));
+			}
+		}
+
+		private static String getCanonicalPath(File file) {
+			try {
+				return file.getCanonicalPath();
+			} catch (IOException e) {
+				return file.getAbsolutePath();
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return (file == null ? 0 : file.hashCode()) * 31 + id.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Reference)) {
+				return false;
+			}
+			Reference other = (Reference) obj;
+			return (file == null ? other.file == null : file.equals(other.file)) && id.equals(other.id);
+		}
+	}
+}
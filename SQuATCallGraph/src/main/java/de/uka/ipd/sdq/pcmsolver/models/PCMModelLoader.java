@@ -0,0 +1,226 @@
+package de.uka.ipd.sdq.pcmsolver.models;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Loads PCM model files into a {@link ResourceSet} file by file. Starting from
+ * the given root files (usually the usage model and the allocation), every
+ * referenced model file is discovered from the unresolved proxies of the
+ * already loaded files and parsed on a worker thread. Each file is parsed into
+ * a private {@link ResourceSet} and moved into the target set afterwards, so
+ * the workers never share EMF state.
+ *
+ * Proxies are not resolved by the loader. As all referenced resources are
+ * present in the target set afterwards, EMF resolves each proxy the first time
+ * it is navigated.
+ *
+ * The time spent on each file is recorded and can be retrieved with
+ * {@link #getLoadTimes()}.
+ *
+ * If a {@link ModelCache} is set, the files are read through the cache.
+ */
+public class PCMModelLoader {
+
+	private static Logger logger = Logger.getLogger(PCMModelLoader.class.getName());
+
+	private final EPackage[] ePackages;
+
+	private final int threads;
+
+	private ModelCache modelCache;
+
+	private final Map<String, Long> loadTimes = Collections.synchronizedMap(new LinkedHashMap<String, Long>());
+
+	/**
+	 * @param ePackages
+	 *            the packages to register in the resource sets of the workers.
+	 * @param threads
+	 *            the number of files that are parsed concurrently.
+	 */
+	public PCMModelLoader(EPackage[] ePackages, int threads) {
+		this.ePackages = ePackages;
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * @param modelCache
+	 *            the cache to read the model files from, or null to always
+	 *            parse the files.
+	 */
+	public void setModelCache(ModelCache modelCache) {
+		this.modelCache = modelCache;
+	}
+
+	/**
+	 * Loads the given model files and all model files referenced by them into
+	 * the target {@link ResourceSet}.
+	 *
+	 * @param target
+	 *            the resource set the loaded resources are added to.
+	 * @param modelFiles
+	 *            paths or URIs of the root model files.
+	 */
+	public void load(ResourceSet target, List<String> modelFiles) {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CompletionService<Resource> completionService = new ExecutorCompletionService<Resource>(executor);
+		try {
+			Set<URI> knownURIs = new HashSet<URI>();
+			for (Resource resource : target.getResources()) {
+				knownURIs.add(resource.getURI());
+			}
+			if (target instanceof ResourceSetImpl && ((ResourceSetImpl) target).getURIResourceMap() != null) {
+				knownURIs.addAll(((ResourceSetImpl) target).getURIResourceMap().keySet());
+			}
+
+			int pending = 0;
+			for (String modelFile : modelFiles) {
+				URI uri = toURI(modelFile);
+				if (knownURIs.add(uri)) {
+					completionService.submit(new LoadTask(uri, true));
+					pending++;
+				}
+			}
+
+			while (pending > 0) {
+				Resource resource = takeResource(completionService);
+				pending--;
+				if (resource == null) {
+					continue;
+				}
+				target.getResources().add(resource);
+				for (URI referencedURI : getReferencedResourceURIs(resource)) {
+					if (knownURIs.add(referencedURI)) {
+						completionService.submit(new LoadTask(referencedURI, false));
+						pending++;
+					}
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return the load time in milliseconds for each loaded file, in the order
+	 *         the files finished loading.
+	 */
+	public Map<String, Long> getLoadTimes() {
+		synchronized (loadTimes) {
+			return new LinkedHashMap<String, Long>(loadTimes);
+		}
+	}
+
+	/**
+	 * Parses a single file into its own resource set.
+	 *
+	 * @param uri
+	 *            the URI of the file.
+	 * @return the loaded resource.
+	 */
+	protected Resource loadResource(URI uri) {
+		ResourceSet resourceSet = new ResourceSetImpl();
+		for (EPackage ePackage : ePackages) {
+			resourceSet.getPackageRegistry().put(ePackage.getNsURI(), ePackage);
+		}
+		if (modelCache == null) {
+			return resourceSet.getResource(uri, true);
+		}
+		try {
+			return modelCache.getResource(resourceSet, uri);
+		} catch (IOException e) {
+			throw new RuntimeException("Could not load " + uri + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Collects the URIs of all resources that are referenced by unresolved
+	 * proxies in the given resource.
+	 */
+	private Set<URI> getReferencedResourceURIs(Resource resource) {
+		Set<URI> referencedURIs = new HashSet<URI>();
+		for (EObject proxy : EcoreUtil.ProxyCrossReferencer.find(resource).keySet()) {
+			URI proxyURI = ((InternalEObject) proxy).eProxyURI();
+			if (proxyURI != null) {
+				referencedURIs.add(proxyURI.trimFragment());
+			}
+		}
+		return referencedURIs;
+	}
+
+	private Resource takeResource(CompletionService<Resource> completionService) {
+		try {
+			return completionService.take().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while loading PCM models.", e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Could not load PCM model: " + e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	/**
+	 * The argument is treated as a file path only if it denotes an existing
+	 * file. Otherwise, it's directly treated as a URI.
+	 */
+	static URI toURI(String modelFile) {
+		File file = new File(modelFile);
+		return file.isFile() ? URI.createFileURI(file.getAbsolutePath()) : URI.createURI(modelFile);
+	}
+
+	/**
+	 * Loads a single file. Root files must load, while a failing referenced
+	 * file is only reported: like with {@link EcoreUtil#resolveAll}, the
+	 * proxies pointing to it simply stay unresolved.
+	 */
+	private class LoadTask implements Callable<Resource> {
+		private final URI uri;
+		private final boolean root;
+
+		LoadTask(URI uri, boolean root) {
+			this.uri = uri;
+			this.root = root;
+		}
+
+		@Override
+		public Resource call() throws Exception {
+			long start = System.nanoTime();
+			Resource resource;
+			try {
+				resource = loadResource(uri);
+			} catch (RuntimeException e) {
+				if (root) {
+					throw e;
+				}
+				logger.warn("Could not load referenced model " + uri + ": " + e.getMessage());
+				return null;
+			}
+			long duration = (System.nanoTime() - start) / 1000000;
+			loadTimes.put(uri.toString(), duration);
+			logger.info("Loaded " + uri + " in " + duration + " ms");
+			return resource;
+		}
+	}
+}
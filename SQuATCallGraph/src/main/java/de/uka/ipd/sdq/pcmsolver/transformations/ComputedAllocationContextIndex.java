@@ -0,0 +1,80 @@
+package de.uka.ipd.sdq.pcmsolver.transformations;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.EList;
+import org.palladiosimulator.pcm.allocation.AllocationContext;
+import org.palladiosimulator.solver.context.computed_allocation.ComputedAllocation;
+import org.palladiosimulator.solver.context.computed_allocation.ComputedAllocationContext;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsageContext;
+
+/**
+ * Index of the {@link ComputedAllocationContext}s of a
+ * {@link ComputedAllocation} by the ids of their allocation context and usage
+ * context. For each pair, the first context in the list is returned, like a
+ * scan of the list would.
+ *
+ * Contexts appended to the list, e.g., by joining a fork, are indexed on the
+ * next lookup.
+ */
+public class ComputedAllocationContextIndex {
+
+	private final ComputedAllocation computedAllocation;
+
+	private int indexedContexts = 0;
+
+	private final Map<String, ComputedAllocationContext> contexts = new HashMap<String, ComputedAllocationContext>();
+
+	/**
+	 * @param computedAllocation
+	 *            the computed allocation contexts to index.
+	 */
+	public ComputedAllocationContextIndex(ComputedAllocation computedAllocation) {
+		this.computedAllocation = computedAllocation;
+	}
+
+	/**
+	 * @param computedAllocation
+	 * @return true if this is the index of the given contexts.
+	 */
+	public boolean isIndexOf(ComputedAllocation computedAllocation) {
+		return this.computedAllocation == computedAllocation;
+	}
+
+	/**
+	 * @param allocationContext
+	 * @param usageContext
+	 * @return the computed allocation context for the allocation context in
+	 *         the given usage context, or null.
+	 */
+	public ComputedAllocationContext find(AllocationContext allocationContext, ComputedUsageContext usageContext) {
+		update();
+		return contexts.get(key(allocationContext.getId(), usageContext.getId()));
+	}
+
+	/**
+	 * Indexes the contexts added since the last lookup. If contexts have been
+	 * removed, all contexts are indexed again.
+	 */
+	private void update() {
+		EList<ComputedAllocationContext> allocationContexts = computedAllocation
+				.getComputedAllocationContexts_ComputedAllocation();
+		if (allocationContexts.size() < indexedContexts) {
+			contexts.clear();
+			indexedContexts = 0;
+		}
+		for (; indexedContexts < allocationContexts.size(); indexedContexts++) {
+			ComputedAllocationContext cac = allocationContexts.get(indexedContexts);
+			String key = key(cac.getAllocationContext_ComputedAllocationContext().getId(),
+					cac.getUsageContext_ComputedAllocationContext().getId());
+			if (!contexts.containsKey(key)) {
+				contexts.put(key, cac);
+			}
+		}
+	}
+
+	private static String key(String allocationContextId, String usageContextId) {
+		return allocationContextId + "|" + usageContextId;
+	}
+}
@@ -0,0 +1,94 @@
+package de.uka.ipd.sdq.pcmsolver.transformations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.EcoreUtil.Copier;
+import org.palladiosimulator.pcm.parameter.VariableUsage;
+import org.palladiosimulator.solver.context.computed_usage.ExternalCallInput;
+import org.palladiosimulator.solver.context.computed_usage.Input;
+
+/**
+ * Adds the results of a concurrent traversal to computed contexts, such that
+ * they look like after a sequential traversal: contained elements the
+ * traversal added are appended, like a sequential traversal of the same
+ * context would append them. An {@link ExternalCallInput} is only added if the
+ * context has no equal one yet, as a sequential traversal reuses the existing
+ * input of a call (see {@link ContextWrapper}).
+ */
+public class ComputedContextMerge {
+
+	/**
+	 * Adds the contents of the source to the target.
+	 *
+	 * @param target
+	 *            the context to add to.
+	 * @param source
+	 *            the context holding the results.
+	 * @param originals
+	 *            for contents of the source that are copies of contents of
+	 *            the target, the original by copy. Their contents are merged
+	 *            into the original instead of adding them.
+	 * @param copier
+	 *            copies the added contents, or null to move them.
+	 */
+	@SuppressWarnings("unchecked")
+	public static void addContents(EObject target, EObject source, Map<EObject, EObject> originals, Copier copier) {
+		for (EReference containment : source.eClass().getEAllContainments()) {
+			Object value = source.eGet(containment);
+			if (containment.isMany()) {
+				EList<EObject> targetList = (EList<EObject>) target.eGet(containment);
+				for (EObject element : new ArrayList<EObject>((EList<EObject>) value)) {
+					EObject original = originals.get(element);
+					if (original != null) {
+						addContents(original, element, originals, copier);
+					} else if (!(element instanceof ExternalCallInput)
+							|| !containsEqualInput(targetList, (ExternalCallInput) element)) {
+						targetList.add(copier == null ? element : copier.copy(element));
+					}
+				}
+			} else if (value != null) {
+				EObject element = (EObject) value;
+				EObject original = originals.get(element);
+				EObject targetValue = (EObject) target.eGet(containment);
+				if (original != null) {
+					addContents(original, element, originals, copier);
+				} else if (targetValue == null) {
+					target.eSet(containment, copier == null ? element : copier.copy(element));
+				} else if (!(element instanceof Input)) {
+					// the input identifies the context and is equal anyway
+					addContents(targetValue, element, originals, copier);
+				}
+			}
+		}
+	}
+
+	private static boolean containsEqualInput(List<EObject> inputs, ExternalCallInput eci) {
+		for (EObject input : inputs) {
+			ExternalCallInput other = (ExternalCallInput) input;
+			if (other.getExternalCallAction_ExternalCallInput() == eci.getExternalCallAction_ExternalCallInput()
+					&& equals(other.getParameterCharacterisations_ExternalCallInput(),
+							eci.getParameterCharacterisations_ExternalCallInput())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean equals(List<VariableUsage> first, List<VariableUsage> second) {
+		if (first.size() != second.size()) {
+			return false;
+		}
+		for (int i = 0; i < first.size(); i++) {
+			if (!EcoreUtil.equals(first.get(i), second.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,210 @@
+package de.uka.ipd.sdq.pcmsolver.transformations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.EList;
+import org.palladiosimulator.pcm.core.composition.AssemblyContext;
+import org.palladiosimulator.pcm.parameter.VariableCharacterisation;
+import org.palladiosimulator.pcm.parameter.VariableUsage;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsage;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsageContext;
+
+/**
+ * Index of the {@link ComputedUsageContext}s of a {@link ComputedUsage}, used
+ * by the {@link ContextWrapper} to find an existing context for the input of a
+ * call. The input characterisations of each context are reduced once to a
+ * canonical form: the full parameter names, and for each parameter the set of
+ * characterisation types and specifications without blanks. The contexts are
+ * indexed by assembly context and by a fingerprint of this canonical form.
+ *
+ * A context matches the input of a call if each parameter of the call is
+ * characterised by the context in the same way. The context may characterise
+ * further parameters, e.g., component parameters. Like the former scan of the
+ * list, the first matching context of the assembly context is returned. The
+ * first context whose input is exactly the input of the call is found by a
+ * hash lookup, so the scan stops there at the latest.
+ *
+ * Contexts appended to the list are indexed on the next lookup; their input
+ * must not change afterwards.
+ */
+public class ComputedUsageContextIndex {
+
+	private final ComputedUsage computedUsage;
+
+	private int indexedContexts = 0;
+
+	/** The indexed contexts of each assembly context, by its id. */
+	private final Map<String, List<IndexedContext>> contextsByAssemblyContext = new HashMap<String, List<IndexedContext>>();
+
+	/** The first context for each assembly context id and fingerprint. */
+	private final Map<String, IndexedContext> contextsByFingerprint = new HashMap<String, IndexedContext>();
+
+	/**
+	 * @param computedUsage
+	 *            the computed usage contexts to index.
+	 */
+	public ComputedUsageContextIndex(ComputedUsage computedUsage) {
+		this.computedUsage = computedUsage;
+	}
+
+	/**
+	 * @param computedUsage
+	 * @return true if this is the index of the given contexts.
+	 */
+	public boolean isIndexOf(ComputedUsage computedUsage) {
+		return this.computedUsage == computedUsage;
+	}
+
+	/**
+	 * @param assemblyContext
+	 * @param variableUsages
+	 *            the input of the call.
+	 * @return a context of the assembly context that matches the input, or
+	 *         null.
+	 */
+	public ComputedUsageContext find(AssemblyContext assemblyContext, List<VariableUsage> variableUsages) {
+		update();
+		CanonicalInput input = new CanonicalInput(variableUsages);
+		IndexedContext exactMatch = contextsByFingerprint.get(key(assemblyContext, input.fingerprint));
+		boolean exactMatchFound = exactMatch != null && input.isMatchedBy(exactMatch.input);
+		List<IndexedContext> candidates = contextsByAssemblyContext.get(assemblyContext.getId());
+		if (candidates != null) {
+			for (IndexedContext candidate : candidates) {
+				if (candidate == exactMatch ? exactMatchFound : input.isMatchedBy(candidate.input)) {
+					return candidate.context;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param assemblyContext
+	 * @return the first context of the assembly context without any input, or
+	 *         null.
+	 */
+	public ComputedUsageContext findWithoutInput(AssemblyContext assemblyContext) {
+		update();
+		IndexedContext indexedContext = contextsByFingerprint
+				.get(key(assemblyContext, new CanonicalInput(Collections.<VariableUsage> emptyList()).fingerprint));
+		return indexedContext == null ? null : indexedContext.context;
+	}
+
+	/**
+	 * Indexes the contexts added since the last lookup. If contexts have been
+	 * removed, all contexts are indexed again.
+	 */
+	private void update() {
+		EList<ComputedUsageContext> usageContexts = computedUsage.getUsageContexts_ComputedUsage();
+		if (usageContexts.size() < indexedContexts) {
+			contextsByAssemblyContext.clear();
+			contextsByFingerprint.clear();
+			indexedContexts = 0;
+		}
+		for (; indexedContexts < usageContexts.size(); indexedContexts++) {
+			ComputedUsageContext context = usageContexts.get(indexedContexts);
+			AssemblyContext assemblyContext = context.getAssemblyContext_ComputedUsageContext();
+			IndexedContext indexedContext = new IndexedContext(context);
+
+			List<IndexedContext> contexts = contextsByAssemblyContext.get(assemblyContext.getId());
+			if (contexts == null) {
+				contexts = new ArrayList<IndexedContext>();
+				contextsByAssemblyContext.put(assemblyContext.getId(), contexts);
+			}
+			contexts.add(indexedContext);
+
+			String key = key(assemblyContext, indexedContext.input.fingerprint);
+			if (!contextsByFingerprint.containsKey(key)) {
+				contextsByFingerprint.put(key, indexedContext);
+			}
+		}
+	}
+
+	private static String key(AssemblyContext assemblyContext, String fingerprint) {
+		return assemblyContext.getId() + "|" + fingerprint;
+	}
+
+	private static class IndexedContext {
+		private final ComputedUsageContext context;
+		private final CanonicalInput input;
+
+		IndexedContext(ComputedUsageContext context) {
+			this.context = context;
+			this.input = new CanonicalInput(context.getInput_ComputedUsageContext().getParameterChacterisations_Input());
+		}
+	}
+
+	/**
+	 * The canonical form of a list of variable usages.
+	 */
+	private static class CanonicalInput {
+		/** The characterisations of each variable usage, in list order. */
+		private final List<Parameter> parameters = new ArrayList<Parameter>();
+		/** The characterisations of the variable usages with the same name. */
+		private final Map<String, List<Set<String>>> parametersByName = new HashMap<String, List<Set<String>>>();
+		private final String fingerprint;
+
+		CanonicalInput(List<VariableUsage> variableUsages) {
+			List<String> parameterFingerprints = new ArrayList<String>();
+			for (VariableUsage vu : variableUsages) {
+				Parameter parameter = new Parameter(vu);
+				parameters.add(parameter);
+
+				List<Set<String>> sameName = parametersByName.get(parameter.name);
+				if (sameName == null) {
+					sameName = new ArrayList<Set<String>>();
+					parametersByName.put(parameter.name, sameName);
+				}
+				sameName.add(new HashSet<String>(parameter.characterisations));
+
+				List<String> characterisations = new ArrayList<String>(new HashSet<String>(parameter.characterisations));
+				Collections.sort(characterisations);
+				parameterFingerprints.add(parameter.name + characterisations);
+			}
+			Collections.sort(parameterFingerprints);
+			this.fingerprint = parameterFingerprints.toString();
+		}
+
+		/**
+		 * Counts the pairs of a parameter and a parameter of the context with
+		 * the same name that has all its characterisations, like the former
+		 * pairwise comparison of the variable usages.
+		 */
+		boolean isMatchedBy(CanonicalInput context) {
+			int matchingParameters = 0;
+			for (Parameter parameter : parameters) {
+				List<Set<String>> sameName = context.parametersByName.get(parameter.name);
+				if (sameName != null) {
+					for (Set<String> characterisations : sameName) {
+						if (characterisations.containsAll(parameter.characterisations)) {
+							matchingParameters++;
+						}
+					}
+				}
+			}
+			return matchingParameters == parameters.size();
+		}
+	}
+
+	private static class Parameter {
+		private final String name;
+		/** Type and specification of each characterisation, without blanks. */
+		private final List<String> characterisations = new ArrayList<String>();
+
+		Parameter(VariableUsage vu) {
+			this.name = ParameterNames.getSymbol(vu.getNamedReference__VariableUsage());
+			for (VariableCharacterisation vc : vu.getVariableCharacterisation_VariableUsage()) {
+				// different formatting of the specifications, e.g., by pretty
+				// printing, does not make them different
+				characterisations.add(vc.getType().getLiteral() + "="
+						+ vc.getSpecification_VariableCharacterisation().getSpecification().replace(" ", ""));
+			}
+		}
+	}
+}
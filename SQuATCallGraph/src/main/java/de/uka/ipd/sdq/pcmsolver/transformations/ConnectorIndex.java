@@ -0,0 +1,188 @@
+package de.uka.ipd.sdq.pcmsolver.transformations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.palladiosimulator.pcm.core.composition.AssemblyConnector;
+import org.palladiosimulator.pcm.core.composition.AssemblyContext;
+import org.palladiosimulator.pcm.core.composition.ComposedStructure;
+import org.palladiosimulator.pcm.core.composition.Connector;
+import org.palladiosimulator.pcm.core.composition.ProvidedDelegationConnector;
+import org.palladiosimulator.pcm.core.composition.RequiredDelegationConnector;
+import org.palladiosimulator.pcm.repository.OperationRequiredRole;
+import org.palladiosimulator.pcm.repository.Role;
+
+/**
+ * Index of the connectors of the system and the composite components, used by
+ * the {@link ContextWrapper} to find the assembly context that handles an
+ * external call. Lookups return the first matching connector in the order of
+ * the model.
+ */
+public class ConnectorIndex {
+
+	private final Map<ComposedStructure, StructureIndex> structures = new ConcurrentHashMap<ComposedStructure, StructureIndex>();
+
+	private final Map<String, List<AssemblyContext>> providingAssemblyContexts = new ConcurrentHashMap<String, List<AssemblyContext>>();
+
+	/**
+	 * @param requiringAssemblyContext
+	 * @param requiredRoleId
+	 * @param requiredInterfaceId
+	 * @return the assembly connector that connects the required role of the
+	 *         assembly context within its parent structure, or null.
+	 */
+	public AssemblyConnector getAssemblyConnector(AssemblyContext requiringAssemblyContext, String requiredRoleId,
+			String requiredInterfaceId) {
+		return getStructureIndex(requiringAssemblyContext.getParentStructure__AssemblyContext()).assemblyConnectors
+				.get(key(requiringAssemblyContext.getId(), requiredRoleId, requiredInterfaceId));
+	}
+
+	/**
+	 * @param assemblyContext
+	 * @param innerRoleId
+	 * @return the required delegation connector that delegates the required
+	 *         role of the assembly context to its parent structure, or null.
+	 */
+	public RequiredDelegationConnector getRequiredDelegationConnector(AssemblyContext assemblyContext,
+			String innerRoleId) {
+		return getStructureIndex(assemblyContext.getParentStructure__AssemblyContext()).delegationConnectors
+				.get(key(assemblyContext.getId(), innerRoleId));
+	}
+
+	/**
+	 * @param structure
+	 * @param innerRoleId
+	 * @param interfaceId
+	 * @return all required delegation connectors of the structure with the
+	 *         given inner role, regardless of their assembly context.
+	 */
+	public List<RequiredDelegationConnector> getRequiredDelegationConnectors(ComposedStructure structure,
+			String innerRoleId, String interfaceId) {
+		List<RequiredDelegationConnector> connectors = getStructureIndex(structure).delegationConnectorsByRole
+				.get(key(innerRoleId, interfaceId));
+		if (connectors == null) {
+			return Collections.emptyList();
+		}
+		return connectors;
+	}
+
+	/**
+	 * @param structure
+	 * @param outerRoleId
+	 * @return the provided delegation connector of the structure that
+	 *         delegates the given outer role, or null. If several connectors
+	 *         delegate the role, the last one is returned.
+	 */
+	public ProvidedDelegationConnector getProvidedDelegationConnector(ComposedStructure structure,
+			String outerRoleId) {
+		return getStructureIndex(structure).providedDelegationConnectors.get(outerRoleId);
+	}
+
+	/**
+	 * Follows the provided delegation connectors from the given assembly
+	 * context down to the basic component, see
+	 * {@link ContextWrapper#getAssCtxs(AssemblyContext, Role, List)}.
+	 *
+	 * @param providingContext
+	 * @param providedRole
+	 * @return the assembly contexts from the given one to the one of the basic
+	 *         component. The list must not be modified.
+	 */
+	public List<AssemblyContext> getProvidingAssemblyContexts(AssemblyContext providingContext, Role providedRole) {
+		String key = key(providingContext.getId(), providedRole.getId());
+		List<AssemblyContext> assemblyContexts = providingAssemblyContexts.get(key);
+		if (assemblyContexts == null) {
+			assemblyContexts = Collections.unmodifiableList(
+					ContextWrapper.getAssCtxs(providingContext, providedRole, new ArrayList<AssemblyContext>()));
+			providingAssemblyContexts.put(key, assemblyContexts);
+		}
+		return assemblyContexts;
+	}
+
+	private StructureIndex getStructureIndex(ComposedStructure structure) {
+		StructureIndex structureIndex = structures.get(structure);
+		if (structureIndex == null) {
+			structureIndex = new StructureIndex(structure);
+			structures.put(structure, structureIndex);
+		}
+		return structureIndex;
+	}
+
+	private static String key(String... ids) {
+		StringBuilder key = new StringBuilder();
+		for (String id : ids) {
+			key.append(id).append('|');
+		}
+		return key.toString();
+	}
+
+	/**
+	 * The connectors of a single composed structure. Connectors that are not
+	 * fully bound are skipped, they never matched before either.
+	 */
+	private static class StructureIndex {
+		/** By requiring assembly context, required role and interface. */
+		private final Map<String, AssemblyConnector> assemblyConnectors = new HashMap<String, AssemblyConnector>();
+		/** By assembly context and inner required role. */
+		private final Map<String, RequiredDelegationConnector> delegationConnectors = new HashMap<String, RequiredDelegationConnector>();
+		/** By inner required role and its interface. */
+		private final Map<String, List<RequiredDelegationConnector>> delegationConnectorsByRole = new HashMap<String, List<RequiredDelegationConnector>>();
+		/** By outer provided role. */
+		private final Map<String, ProvidedDelegationConnector> providedDelegationConnectors = new HashMap<String, ProvidedDelegationConnector>();
+
+		StructureIndex(ComposedStructure structure) {
+			for (Connector conn : structure.getConnectors__ComposedStructure()) {
+				if (conn instanceof AssemblyConnector) {
+					add((AssemblyConnector) conn);
+				} else if (conn instanceof RequiredDelegationConnector) {
+					add((RequiredDelegationConnector) conn);
+				} else if (conn instanceof ProvidedDelegationConnector) {
+					ProvidedDelegationConnector pdc = (ProvidedDelegationConnector) conn;
+					providedDelegationConnectors.put(pdc.getOuterProvidedRole_ProvidedDelegationConnector().getId(),
+							pdc);
+				}
+			}
+		}
+
+		private void add(AssemblyConnector assConn) {
+			AssemblyContext requiringAssemblyContext = assConn.getRequiringAssemblyContext_AssemblyConnector();
+			OperationRequiredRole requiredRole = assConn.getRequiredRole_AssemblyConnector();
+			if (requiringAssemblyContext == null || requiredRole == null
+					|| requiredRole.getRequiredInterface__OperationRequiredRole() == null) {
+				return;
+			}
+			String key = key(requiringAssemblyContext.getId(), requiredRole.getId(),
+					requiredRole.getRequiredInterface__OperationRequiredRole().getId());
+			if (!assemblyConnectors.containsKey(key)) {
+				assemblyConnectors.put(key, assConn);
+			}
+		}
+
+		private void add(RequiredDelegationConnector delConn) {
+			OperationRequiredRole innerRole = delConn.getInnerRequiredRole_RequiredDelegationConnector();
+			if (innerRole == null) {
+				return;
+			}
+			AssemblyContext assemblyContext = delConn.getAssemblyContext_RequiredDelegationConnector();
+			if (assemblyContext != null) {
+				String key = key(assemblyContext.getId(), innerRole.getId());
+				if (!delegationConnectors.containsKey(key)) {
+					delegationConnectors.put(key, delConn);
+				}
+			}
+			if (innerRole.getRequiredInterface__OperationRequiredRole() != null) {
+				String key = key(innerRole.getId(), innerRole.getRequiredInterface__OperationRequiredRole().getId());
+				List<RequiredDelegationConnector> connectors = delegationConnectorsByRole.get(key);
+				if (connectors == null) {
+					connectors = new ArrayList<RequiredDelegationConnector>();
+					delegationConnectorsByRole.put(key, connectors);
+				}
+				connectors.add(delConn);
+			}
+		}
+	}
+}
@@ -10,6 +10,9 @@ import java.util.TreeMap;
 
 import org.antlr.runtime.RecognitionException;
 import org.apache.log4j.Logger;
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.common.util.BasicEList;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.util.EcoreUtil;
@@ -33,8 +36,6 @@ import org.palladiosimulator.pcm.core.composition.RequiredDelegationConnector;
 import org.palladiosimulator.pcm.parameter.VariableCharacterisation;
 import org.palladiosimulator.pcm.parameter.VariableCharacterisationType;
 import org.palladiosimulator.pcm.parameter.VariableUsage;
-import org.palladiosimulator.pcm.qosannotations.QoSAnnotations;
-import org.palladiosimulator.pcm.qosannotations.SpecifiedQoSAnnotation;
 import org.palladiosimulator.pcm.qosannotations.qos_reliability.SpecifiedReliabilityAnnotation;
 import org.palladiosimulator.pcm.reliability.ExternalFailureOccurrenceDescription;
 import org.palladiosimulator.pcm.repository.BasicComponent;
@@ -49,7 +50,6 @@ import org.palladiosimulator.pcm.repository.RequiredRole;
 import org.palladiosimulator.pcm.repository.Role;
 import org.palladiosimulator.pcm.repository.Signature;
 import org.palladiosimulator.pcm.resourceenvironment.CommunicationLinkResourceSpecification;
-import org.palladiosimulator.pcm.resourceenvironment.LinkingResource;
 import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
 import org.palladiosimulator.pcm.resourceenvironment.ResourceContainer;
 import org.palladiosimulator.pcm.resourcetype.ProcessingResourceType;
@@ -64,7 +64,6 @@ import org.palladiosimulator.pcm.system.System;
 import org.palladiosimulator.pcm.usagemodel.EntryLevelSystemCall;
 import org.palladiosimulator.pcm.usagemodel.UsageModel;
 import org.palladiosimulator.pcm.usagemodel.UserData;
-import de.uka.ipd.sdq.pcmsolver.Pair;
 import de.uka.ipd.sdq.pcmsolver.models.PCMInstance;
 import de.uka.ipd.sdq.pcmsolver.visitors.ExpressionHelper;
 import de.uka.ipd.sdq.pcmsolver.visitors.VariableUsageHelper;
@@ -72,9 +71,7 @@ import de.uka.ipd.sdq.probfunction.ProbabilityDensityFunction;
 import de.uka.ipd.sdq.probfunction.math.ManagedPDF;
 import de.uka.ipd.sdq.probfunction.math.ManagedPMF;
 import de.uka.ipd.sdq.probfunction.math.exception.StringNotPDFException;
-import de.uka.ipd.sdq.stoex.AbstractNamedReference;
 import de.uka.ipd.sdq.stoex.Expression;
-import de.uka.ipd.sdq.stoex.NamespaceReference;
 import de.uka.ipd.sdq.stoex.ProbabilityFunctionLiteral;
 
 /**
@@ -179,24 +176,16 @@ public class ContextWrapper implements Cloneable {
 	private AllocationContext allCtx;
 	/** See {@link #getAssCtxList()} for info */
 	private List<AssemblyContext> assCtxList;
-	private HashMap<AbstractBranchTransition, Double> branchProbs = new HashMap<AbstractBranchTransition, Double>();
 	private ComputedAllocationContext compAllCtx;
 
 	private ComputedUsageContext compUsgCtx;
-	// maps 
-	private CallsToLinkResourcesMap linkResources = new CallsToLinkResourcesMap();
-	private HashMap<AbstractLoopAction, ManagedPMF> loopIters = new HashMap<AbstractLoopAction, ManagedPMF>();
 	private PCMInstance pcmInstance;
-	private HashMap<ParametricResourceDemand, ProcessingResourceSpecification> procResources = new HashMap<ParametricResourceDemand, ProcessingResourceSpecification>();;
 
-	private HashMap<ExternalCallAction, Double> inputParameterBytesizes = new HashMap<ExternalCallAction, Double>();
-	private HashMap<ExternalCallAction, Double> outputParameterBytesizes = new HashMap<ExternalCallAction, Double>();
-	
 	/**
-	 * Contains the already solved resource demand in time on the specific
-	 * processor
+	 * The maps derived from the computed contexts, see {@link #getTables()}.
+	 * Reset whenever one of the contexts is replaced.
 	 */
-	private ResourceDemandCache resDemands = new ResourceDemandCache();
+	private ComputedContextTables tables;
 
 	/** Creates a List of {@link ContextWrapper}s to handle the given 
 	 * {@link EntryLevelSystemCall}. One {@link ContextWrapper} is created 
@@ -243,7 +232,6 @@ public class ContextWrapper implements Cloneable {
 			ContextWrapper contextWrapper = (ContextWrapper)templateContextWrapper.clone();
 			contextWrapper.setAllCtx(allocationContext);
 			contextWrapper.setCompAllCtx(contextWrapper.getNextComputedAllocationContext(contextWrapper.getCompUsgCtx()));
-			contextWrapper.readComputedContextsToHashMaps();
 			contextWrapperList.add(contextWrapper);
 		}
 		return contextWrapperList;
@@ -290,6 +278,8 @@ public class ContextWrapper implements Cloneable {
 	 * Copies this ContextWrapper. Sets references to the PCM model elements and  
 	 * the computed context objects, so that the context can be shared (e.g. retrieving
 	 * branch probabilities of earlier context wrapper traversals).  
+	 * The maps derived from the computed contexts are shared as well, so 
+	 * cloning takes constant time.
 	 */
 	public Object clone() {
 		ContextWrapper clonedWrapper = new ContextWrapper();
@@ -304,10 +294,7 @@ public class ContextWrapper implements Cloneable {
 		clonedWrapper.setCompAllCtx(compAllCtx);
 		clonedWrapper.setCompUsgCtx(compUsgCtx);
 		clonedWrapper.setPcmInstance(pcmInstance);
-		
-		if (compAllCtx != null && compUsgCtx != null){
-			clonedWrapper.readComputedContextsToHashMaps();
-		}
+		clonedWrapper.tables = tables;
 		return clonedWrapper;
 	}
 
@@ -334,6 +321,10 @@ public class ContextWrapper implements Cloneable {
 
 		// Create the result variable:
 		BasicEList<AssemblyContext> resultList = new BasicEList<AssemblyContext>();
+		if (isCreateContextWrapper) {
+			// the list of assembly contexts is modified below
+			tables = null;
+		}
 
 		// Collect information about the externalCall:
 		String roleId = externalCall.getRole_ExternalService().getId();
@@ -360,8 +351,11 @@ public class ContextWrapper implements Cloneable {
 
 		// Navigate downwards through the possibly nested AssemblyContexts,
 		// until the actual handling AssemblyContext is found:
+		List<AssemblyContext> providingAssCtxs = pcmInstance.getConnectorIndex()
+				.getProvidingAssemblyContexts(providingContext, providingRole);
 		if (isCreateContextWrapper) {
-			return getAssCtxs(providingContext, providingRole, assCtxList);
+			assCtxList.addAll(providingAssCtxs);
+			return assCtxList;
 		} else {
 			AssemblyContext reqAssCtx = connector
 					.getRequiringAssemblyContext_AssemblyConnector();
@@ -372,7 +366,8 @@ public class ContextWrapper implements Cloneable {
 				}
 				resultList.remove(resultList.size() - 1);
 			}
-			return getAssCtxs(providingContext, providingRole, resultList);
+			resultList.addAll(providingAssCtxs);
+			return resultList;
 		}
 	}
 
@@ -431,7 +426,7 @@ public class ContextWrapper implements Cloneable {
 	}
 
 	public Double getBranchProbability(AbstractBranchTransition abt) {
-		return branchProbs.get(abt);
+		return getTables().branchProbs.get(abt);
 	}
 
 	public ComputedAllocationContext getCompAllCtx() {
@@ -444,15 +439,15 @@ public class ContextWrapper implements Cloneable {
 
 	public CommunicationLinkResourceSpecification getConcreteLinkingResource(
 			ExternalCallAction eca, AllocationContext targetAllocationContext) {
-		return linkResources.get(eca, targetAllocationContext);
+		return getTables().linkResources.get(eca, targetAllocationContext);
 	}
 	
 	public Double getMeanTotalInputParameterBytesize(ExternalCallAction eca) {
-		return inputParameterBytesizes.get(eca);
+		return getTables().inputParameterBytesizes.get(eca);
 	}
 
 	public Double getMeanTotalOutputParameterBytesize(ExternalCallAction eca) {
-		return outputParameterBytesizes.get(eca);
+		return getTables().outputParameterBytesizes.get(eca);
 	}
 
 	public PassiveResource getConcretePassiveResource(AcquireAction aa) {
@@ -467,7 +462,7 @@ public class ContextWrapper implements Cloneable {
 
 	public ProcessingResourceSpecification getConcreteProcessingResource(
 			ParametricResourceDemand prd) {
-		return procResources.get(prd);
+		return getTables().procResources.get(prd);
 	}
 
 	/**
@@ -480,8 +475,8 @@ public class ContextWrapper implements Cloneable {
 	 */
 	public List<ContextWrapper> getContextWrapperFor(EntryLevelSystemCall elsa) {
 		
-		assCtxList = getFirstAssemblyContext2(elsa);
-		compUsgCtx = getFirstComputedUsageContext(elsa);
+		setAssCtxList(getFirstAssemblyContext2(elsa));
+		setCompUsgCtx(getFirstComputedUsageContext(elsa));
 		
 		return createContextWrappersBasedOnTemplate(
 				this, assCtxList,
@@ -498,8 +493,8 @@ public class ContextWrapper implements Cloneable {
 	 * @return A {@link List} of new {@link ContextWrapper} instances, but also changes this one.
 	 */
 	public List<ContextWrapper>  getContextWrapperFor(ExternalCallAction eca) {
-		assCtxList = findProvidingAssemblyContexts(eca, true);
-		compUsgCtx = getNextComputedUsageContext(eca);
+		setAssCtxList(findProvidingAssemblyContexts(eca, true));
+		setCompUsgCtx(getNextComputedUsageContext(eca));
 		
 		List<ContextWrapper> contextWrapperList = createContextWrappersBasedOnTemplate(
 				this, assCtxList,
@@ -611,7 +606,8 @@ public class ContextWrapper implements Cloneable {
 	 * It is assumed that the external call action belongs to the component that
 	 * is encapsulated by the current assembly context. The current assembly
 	 * context is the last element of assCtxList. If no corresponding
-	 * SpecifiedReliabilityAnnotation exists, the method returns NULL.
+	 * SpecifiedReliabilityAnnotation exists, the method returns NULL. The
+	 * annotation is looked up in the {@link QoSAnnotationIndex} of the system.
 	 * 
 	 * @param externalCallAction
 	 *            the system external call
@@ -623,29 +619,9 @@ public class ContextWrapper implements Cloneable {
 			final ExternalCallAction externalCallAction,
 			final OperationRequiredRole systemRequiredRole) {
 
-		// Search through the system's QoS annotations:
-		for (QoSAnnotations annotation : pcmInstance.getSystem()
-				.getQosAnnotations_System()) {
-			for (SpecifiedQoSAnnotation specifiedAnnotation : annotation
-					.getSpecifiedQoSAnnotations_QoSAnnotations()) {
-				if (!(specifiedAnnotation instanceof SpecifiedReliabilityAnnotation)) {
-					continue;
-				}
-				if (specifiedAnnotation.getRole_SpecifiedQoSAnnotation()
-						.getId().equals(systemRequiredRole.getId())) {
-					if (specifiedAnnotation.getSignature_SpecifiedQoSAnnation()
-							.getId().equals(
-									externalCallAction
-											.getCalledService_ExternalService()
-											.getId())) {
-						return (SpecifiedReliabilityAnnotation) specifiedAnnotation;
-					}
-				}
-			}
-		}
-
-		// No corresponding reliability annotation found:
-		return null;
+		return pcmInstance.getQoSAnnotationIndex().getReliabilityAnnotation(
+				systemRequiredRole,
+				externalCallAction.getCalledService_ExternalService());
 	}
 
 	/**
@@ -686,11 +662,11 @@ public class ContextWrapper implements Cloneable {
 	}
 
 	public boolean getIsOriginalPDFFor(ParametricResourceDemand prd) {
-		return this.resDemands.isOriginalPDF(prd);
+		return getTables().resDemands.isOriginalPDF(prd);
 	}
 
 	public ManagedPMF getLoopIterations(AbstractLoopAction ala) {
-		return loopIters.get(ala);
+		return getTables().loopIters.get(ala);
 	}
 
 	/**
@@ -701,71 +677,35 @@ public class ContextWrapper implements Cloneable {
 	 * @return A Double representing the mean time demanded by prd
 	 */
 	public Double getMeanTimeConsumption(ParametricResourceDemand prd) {
-		return resDemands.getDouble(prd);
+		return getTables().resDemands.getDouble(prd);
 	}
 	
 	public String getTimeConsumptionSpecification(ParametricResourceDemand prd) {
-		String resultSpecification = resDemands.getPDF(prd).toString();
+		String resultSpecification = getTables().resDemands.getPDF(prd).toString();
 		return resultSpecification;
 	}
 
 	public ServiceEffectSpecification getNextSEFF(EntryLevelSystemCall elsc) {
 		Signature sig = elsc.getOperationSignature__EntryLevelSystemCall();
 
-		List<AssemblyContext> acList = getFirstAssemblyContext2(elsc);
+		List<AssemblyContext> acList = getEntryAssemblyContexts(elsc);
 
 		AssemblyContext ac = acList.get(acList.size() - 1);
 		BasicComponent bc = (BasicComponent) ac
 				.getEncapsulatedComponent__AssemblyContext();
-		EList<ServiceEffectSpecification> seffList = bc
-				.getServiceEffectSpecifications__BasicComponent();
-		for (ServiceEffectSpecification seff : seffList) {
-			if (seff.getDescribedService__SEFF().getEntityName().equals(
-					sig.getEntityName())) {
-				return seff;
-			}
-		}
-		return null;
+		return pcmInstance.getSeffIndex().getSeff(bc, sig);
 	}
 
 	/**
 	 * Finds the next SEFF for a given external call action and its referenced
 	 * signature. Uses the current assembly context ids from the context wrapper
-	 * as reference.
+	 * as reference. The SEFF is looked up in the {@link SeffIndex}.
 	 * 
 	 * @param eca
-	 * @return
+	 * @return the SEFF, or null for system external calls.
 	 */
 	public ServiceEffectSpecification getNextSEFF(ExternalCallAction eca) {
-		Signature sig = eca.getCalledService_ExternalService();
-
-		// Get the list of providing AssemblyContexts for this call:
-		List<AssemblyContext> acList = findProvidingAssemblyContexts(eca, false);
-		if (acList.size() == 0) {
-			// If no providing AssemblyContexts are found, the call is a system
-			// external call, and there is no next SEFF for it:
-			return null;
-		}
-
-		// Retrieve the actual handling AssemblyContext of the call:
-		AssemblyContext ac = acList.get(acList.size() - 1);
-
-		// Retrieve the actual SEFF that handles the call:
-		BasicComponent bc = (BasicComponent) ac
-				.getEncapsulatedComponent__AssemblyContext();
-		EList<ServiceEffectSpecification> seffList = bc
-				.getServiceEffectSpecifications__BasicComponent();
-		for (ServiceEffectSpecification seff : seffList) {
-			if (seff.getDescribedService__SEFF().getEntityName().equals(
-					sig.getEntityName())) {
-				return seff;
-			}
-		}
-
-		// should not happen:
-		logger.error("Could not find next SEFF " + "for ExternalCallAction "
-				+ eca.getCalledService_ExternalService() + "!");
-		return null;
+		return pcmInstance.getSeffIndex().getSeff(this, eca);
 	}
 
 	public PCMInstance getPcmInstance() {
@@ -780,11 +720,12 @@ public class ContextWrapper implements Cloneable {
 	 * @return A ManagedPDF representing the time demanded by prd
 	 */
 	public ManagedPDF getTimeConsumptionAsPDF(ParametricResourceDemand prd) {
-		return resDemands.getPDF(prd);
+		return getTables().resDemands.getPDF(prd);
 	}
 
 	public void setAllCtx(AllocationContext allCtx) {
 		this.allCtx = allCtx;
+		this.tables = null;
 	}
 
 	/**
@@ -795,18 +736,23 @@ public class ContextWrapper implements Cloneable {
 	 * within a {@link System}, you need all {@link AssemblyContext}s up to the
 	 * {@link System}.
 	 * 
+	 * The list must not be modified afterwards by the caller.
+	 * 
 	 * @param assCtxList
 	 */
 	public void setAssCtxList(List<AssemblyContext> assCtxList) {
 		this.assCtxList = assCtxList;
+		this.tables = null;
 	}
 
 	public void setCompAllCtx(ComputedAllocationContext compAllCtx) {
 		this.compAllCtx = compAllCtx;
+		this.tables = null;
 	}
 
 	public void setCompUsgCtx(ComputedUsageContext compUsgCtx) {
 		this.compUsgCtx = compUsgCtx;
+		this.tables = null;
 	}
 
 	public void setPcmInstance(PCMInstance pcmInstance) {
@@ -905,60 +851,6 @@ public class ContextWrapper implements Cloneable {
 		return eci;
 	}
 
-	private boolean areEqual(EList<VariableUsage> vuList1,
-			EList<VariableUsage> vuList2) {
-
-		int varUsgCounter = 0;
-		for (VariableUsage vu1 : vuList1) {
-			for (VariableUsage vu2 : vuList2) {
-				if (getFullParameterName(vu1.getNamedReference__VariableUsage())
-						.equals(
-								getFullParameterName(vu2
-										.getNamedReference__VariableUsage()))) {
-					EList<VariableCharacterisation> vcList = vu1
-							.getVariableCharacterisation_VariableUsage();
-					int varCharFoundCounter = 0;
-
-					for (VariableCharacterisation vc1 : vcList) {
-						EList<VariableCharacterisation> vcList2 = vu2
-								.getVariableCharacterisation_VariableUsage();
-						boolean singleVarCharFound = false;
-						for (VariableCharacterisation vc2 : vcList2) {
-							// added replaceAll(" ", "") below so that different
-							// formatting of specifications will not lead to
-							// handling them as being different. There seems to
-							// be some pretty printing going on somewhere.
-							// XXX: This may not be enough to handle the pretty
-							// printing, maybe the pretty printing introduces
-							// other errors that are not handled by this.
-							if (vc1.getType().getLiteral().equals(
-									vc2.getType().getLiteral())
-									&& vc1
-											.getSpecification_VariableCharacterisation()
-											.getSpecification()
-											.replaceAll(" ", "")
-											.equals(
-													vc2
-															.getSpecification_VariableCharacterisation()
-															.getSpecification()
-															.replaceAll(" ", ""))) {
-								singleVarCharFound = true;
-							}
-						}
-						// found a single matching characterisation
-						if (singleVarCharFound)
-							varCharFoundCounter++;
-					}
-					// all characterisations for a parameter found:
-					if (varCharFoundCounter == vcList.size())
-						varUsgCounter++;
-				}
-			}
-		}
-		// return true if all matching variable usages found
-		return (varUsgCounter == vuList1.size());
-	}
-
 	private Collection<VariableUsage> copyComponentParameters(
 			AssemblyContext context) {
 		ImplementationComponentType component = (ImplementationComponentType) context
@@ -995,26 +887,6 @@ public class ContextWrapper implements Cloneable {
 		return newCompUsgCtx;
 	}
 
-	/**
-	 * Checks if a resource container exists in a list of containers.
-	 * 
-	 * @param list
-	 *            the list of resource containers
-	 * @param container
-	 *            the resource container to find
-	 * @return TRUE if the container is in the list
-	 */
-	private boolean exists(final EList<ResourceContainer> list,
-			final ResourceContainer container) {
-		// Go through the list of resource containers:
-		for (ResourceContainer element : list) {
-			if (element.getId().equals(container.getId())) {
-				return true;
-			}
-		}
-		return false;
-	}
-
 	/**
 	 * Searches for an AssemblyConnector that connects a given
 	 * requiringAssemblyContext via its requiredRole to its providing
@@ -1037,30 +909,10 @@ public class ContextWrapper implements Cloneable {
 			final String requiredRoleId, final String requiredInterfaceId,
 			final AssemblyContext requiringAssemblyContext) {
 
-		// Retrieve the list of AssemblyConnectors within the parent
+		// Look up the AssemblyConnectors within the parent
 		// ComposedStructure:
-		EList<Connector> assConnList = requiringAssemblyContext
-				.getParentStructure__AssemblyContext().getConnectors__ComposedStructure();
-
-		// Check for each AssemblyConnector in the list if it fulfills
-		// the requirements:
-		for (Connector conn : assConnList) {
-			if (conn instanceof AssemblyConnector) {
-				AssemblyConnector assConn = (AssemblyConnector) conn;
-				if (assConn.getRequiringAssemblyContext_AssemblyConnector().getId()
-						.equals(requiringAssemblyContext.getId())
-						&& assConn.getRequiredRole_AssemblyConnector()
-								.getRequiredInterface__OperationRequiredRole()
-								.getId().equals(requiredInterfaceId)
-						&& assConn.getRequiredRole_AssemblyConnector().getId()
-								.equals(requiredRoleId)) {
-					return assConn;
-				}
-			}
-		}
-
-		// No AssmblyConnector found:
-		return null;
+		return pcmInstance.getConnectorIndex().getAssemblyConnector(
+				requiringAssemblyContext, requiredRoleId, requiredInterfaceId);
 	}
 
 	/**
@@ -1095,21 +947,8 @@ public class ContextWrapper implements Cloneable {
 
 			// Check for the RequiredDelegationConnector that is connected to
 			// this AssemblyContext:
-			RequiredDelegationConnector delConn = null;
-			for (Connector conn : reqStructure
-					.getConnectors__ComposedStructure()) {
-				if (conn instanceof RequiredDelegationConnector) {
-					RequiredDelegationConnector connector = (RequiredDelegationConnector) conn;
-					if (connector.getAssemblyContext_RequiredDelegationConnector()
-							.getId().equals(assCtxList.get(index).getId())
-							&& connector
-									.getInnerRequiredRole_RequiredDelegationConnector()
-									.getId().equals(reqRole.getId())) {
-						delConn = connector;
-						break;
-					}
-				}
-			}
+			RequiredDelegationConnector delConn = pcmInstance.getConnectorIndex()
+					.getRequiredDelegationConnector(assCtxList.get(index), reqRole.getId());
 			if (delConn == null) {
 
 				// No RequiredDelegationConnector found:
@@ -1238,39 +1077,19 @@ public class ContextWrapper implements Cloneable {
 	 */
 	private AssemblyConnector findFromDelegationConnector(String roleId,
 			String interfaceId, AssemblyContext ac, int i) {
-		for (Connector conn : ac.getParentStructure__AssemblyContext().getConnectors__ComposedStructure()) {
-			if (conn instanceof RequiredDelegationConnector) {
-				RequiredDelegationConnector reqConn = (RequiredDelegationConnector) conn;
-				if (reqConn.getInnerRequiredRole_RequiredDelegationConnector()
-						.getId().equals(roleId)
-						&& reqConn
-								.getInnerRequiredRole_RequiredDelegationConnector()
-								.getRequiredInterface__OperationRequiredRole()
-								.getId().equals(interfaceId)) {
-					String outerRoleId = reqConn
-							.getOuterRequiredRole_RequiredDelegationConnector()
-							.getId();
-					AssemblyContext compositeComponentAssemblyContext = assCtxList
-							.get(i - 1);
-					String compositeComponentAssCtxId = compositeComponentAssemblyContext
-							.getId();
-
-					for ( Connector conn2 : compositeComponentAssemblyContext.getParentStructure__AssemblyContext().getConnectors__ComposedStructure()) {
-						if (conn2 instanceof AssemblyConnector) {
-							AssemblyConnector assConn = (AssemblyConnector) conn2;
-							if (assConn.getRequiringAssemblyContext_AssemblyConnector()
-									.getId().equals(compositeComponentAssCtxId)
-									&& assConn
-											.getRequiredRole_AssemblyConnector()
-											.getRequiredInterface__OperationRequiredRole()
-											.getId().equals(interfaceId)
-									&& assConn.getRequiredRole_AssemblyConnector()
-											.getId().equals(outerRoleId)) {
-								return assConn;
-							}
-						}
-					}
-				}
+		ConnectorIndex connectorIndex = pcmInstance.getConnectorIndex();
+		for (RequiredDelegationConnector reqConn : connectorIndex.getRequiredDelegationConnectors(
+				ac.getParentStructure__AssemblyContext(), roleId, interfaceId)) {
+			String outerRoleId = reqConn
+					.getOuterRequiredRole_RequiredDelegationConnector()
+					.getId();
+			AssemblyContext compositeComponentAssemblyContext = assCtxList
+					.get(i - 1);
+
+			AssemblyConnector assConn = connectorIndex.getAssemblyConnector(
+					compositeComponentAssemblyContext, outerRoleId, interfaceId);
+			if (assConn != null) {
+				return assConn;
 			}
 		}
 		return null;
@@ -1278,18 +1097,8 @@ public class ContextWrapper implements Cloneable {
 
 	private ComputedAllocationContext getExistingComputedAllocationContext(
 			ComputedUsageContext compUsgCtx) {
-		EList<ComputedAllocationContext> allCtxList = pcmInstance
-				.getComputedAllocation()
-				.getComputedAllocationContexts_ComputedAllocation();
-		for (ComputedAllocationContext cac : allCtxList) {
-			if (cac.getAllocationContext_ComputedAllocationContext().getId()
-					.equals(allCtx.getId())
-					&& cac.getUsageContext_ComputedAllocationContext().getId()
-							.equals(compUsgCtx.getId())) {
-				return cac;
-			}
-		}
-		return null;
+		return pcmInstance.getComputedAllocationContextIndex().find(allCtx,
+				compUsgCtx);
 	}
 
 	/**
@@ -1309,28 +1118,19 @@ public class ContextWrapper implements Cloneable {
 		EList<ExternalCallInput> eciList = compUsgCtx
 				.getExternalCallInput_ComputedUsageContext();
 		if (eciList.size() == 0) {
-			EList<ComputedUsageContext> cucList = pcmInstance
-					.getComputedUsage().getUsageContexts_ComputedUsage();
-
 			// if input has no variables, we can take the first matching one
 			// without variables.
 			if (eca.getInputVariableUsages__CallAction().size() == 0) {
-				for (ComputedUsageContext cuc : cucList) {
-					// assCtx already points to the next assCtx after the
-					// external
-					// call
-					AssemblyContext referencedAssemblyContext = cuc
-							.getAssemblyContext_ComputedUsageContext();
-					AssemblyContext assemblyContextThisCallIsComingFrom = getAssCtx();
-					if (referencedAssemblyContext.getId().equals(
-							assemblyContextThisCallIsComingFrom.getId())
-							&& cuc.getInput_ComputedUsageContext()
-									.getParameterChacterisations_Input().size() == 0) {
-						// do not forget to create the external call input to
-						// current context:
-						ExternalCallInput extCallIn = addExternalCallInputToCurrentContext(eca);
-						return cuc;
-					}
+				// assCtx already points to the next assCtx after the
+				// external
+				// call
+				ComputedUsageContext cuc = pcmInstance.getComputedUsageContextIndex()
+						.findWithoutInput(getAssCtx());
+				if (cuc != null) {
+					// do not forget to create the external call input to
+					// current context:
+					ExternalCallInput extCallIn = addExternalCallInputToCurrentContext(eca);
+					return cuc;
 				}
 			}
 			ExternalCallInput extCallIn = addExternalCallInputToCurrentContext(eca);
@@ -1404,32 +1204,32 @@ public class ContextWrapper implements Cloneable {
 
 	private List<AssemblyContext> getFirstAssemblyContext2(
 			EntryLevelSystemCall elsa) {
-		String roleId = elsa.getProvidedRole_EntryLevelSystemCall().getId();
-		// Signature serviceToBeCalled =
-		// elsa.getSignature_EntryLevelSystemCall();
-		// Interface requiredInterface = (Interface) serviceToBeCalled
-		// .eContainer();
-		// String interfaceId = requiredInterface.getId();
-		ProvidedRole startingRole = elsa.getProvidedRole_EntryLevelSystemCall();
-
-		AssemblyContext startingAssCtx = null;
-
-		for ( Connector conn : pcmInstance.getSystem().getConnectors__ComposedStructure()) {
-			if (conn instanceof ProvidedDelegationConnector) {
-				ProvidedDelegationConnector pdc = (ProvidedDelegationConnector) conn;
-				if (pdc.getOuterProvidedRole_ProvidedDelegationConnector().getId()
-						.equals(roleId)) {
-					startingAssCtx = pdc
-							.getAssemblyContext_ProvidedDelegationConnector();
-					startingRole = pdc
-							.getInnerProvidedRole_ProvidedDelegationConnector();
-				}
-			}
+		List<AssemblyContext> entryAssemblyContexts = getEntryAssemblyContexts(elsa);
+		if (entryAssemblyContexts == null) {
+			return null;
 		}
+		return new BasicEList<AssemblyContext>(entryAssemblyContexts);
+	}
 
-		if (startingAssCtx != null) {
-			return getAssCtxs(startingAssCtx, startingRole,
-					new BasicEList<AssemblyContext>());
+	/**
+	 * Resolves the provided role of the call through the provided delegation
+	 * connectors of the system once, see {@link ConnectorIndex}.
+	 * 
+	 * @param elsa
+	 * @return the assembly contexts that handle the call, which must not be
+	 *         modified, or null if the provided role is not delegated.
+	 */
+	private List<AssemblyContext> getEntryAssemblyContexts(
+			EntryLevelSystemCall elsa) {
+		String roleId = elsa.getProvidedRole_EntryLevelSystemCall().getId();
+		ConnectorIndex connectorIndex = pcmInstance.getConnectorIndex();
+		ProvidedDelegationConnector pdc = connectorIndex
+				.getProvidedDelegationConnector(pcmInstance.getSystem(), roleId);
+
+		if (pdc != null && pdc.getAssemblyContext_ProvidedDelegationConnector() != null) {
+			return connectorIndex.getProvidingAssemblyContexts(
+					pdc.getAssemblyContext_ProvidedDelegationConnector(),
+					pdc.getInnerProvidedRole_ProvidedDelegationConnector());
 		} else {
 			// "Something is wrong with your ProvidedDelegationConnectors: Are they all bound to proper roles?"
 			return null;
@@ -1472,16 +1272,6 @@ public class ContextWrapper implements Cloneable {
 		}
 	}
 
-	private String getFullParameterName(AbstractNamedReference ref) {
-		String name = "";
-		while (ref instanceof NamespaceReference) {
-			NamespaceReference nsRef = (NamespaceReference) ref;
-			name += nsRef.getReferenceName() + ".";
-			ref = nsRef.getInnerReference_NamespaceReference();
-		}
-		return name += ref.getReferenceName();
-	}
-
 	/**
 	 * It can be multiple ones if the component
 	 * is replicated to several servers. Otherwise the list contains only one element.
@@ -1494,17 +1284,9 @@ public class ContextWrapper implements Cloneable {
 		if (nextAssCtxIterator.hasNext()) {
 			AssemblyContext nextAssCtx = nextAssCtxIterator.next();
 
-			EList<AllocationContext> allCtxList = pcmInstance.getAllocation()
-					.getAllocationContexts_Allocation();
-
 			// return all AllocationContexts this AssemblyContext is allocated to
-			List<AllocationContext> targetAllocationContextList = new ArrayList<AllocationContext>(); 
-			for (AllocationContext allCtx : allCtxList) {
-				if (allCtx.getAssemblyContext_AllocationContext().getId()
-						.equals(nextAssCtx.getId())) {
-					targetAllocationContextList.add(allCtx);
-				}
-			}
+			List<AllocationContext> targetAllocationContextList = new ArrayList<AllocationContext>(
+					pcmInstance.getAllocationContexts(nextAssCtx));
 			if (targetAllocationContextList.size() >= 0){
 				return targetAllocationContextList;
 			} else {
@@ -1589,11 +1371,10 @@ public class ContextWrapper implements Cloneable {
 
 	private void handleComputedContexts(ComputedUsageContext cuc,
 			ComputedAllocationContext cac) {
-		compUsgCtx = cuc;
+		setCompUsgCtx(cuc);
 		compUsgCtx.setAssemblyContext_ComputedUsageContext(getAssCtx());
-		compAllCtx = cac;
+		setCompAllCtx(cac);
 		compAllCtx.setAllocationContext_ComputedAllocationContext(allCtx);
-		readComputedContextsToHashMaps();
 	}
 
 	/**
@@ -1606,29 +1387,49 @@ public class ContextWrapper implements Cloneable {
 	 * @return A matching {@link ComputedUsageContext} or null.
 	 */
 	private ComputedUsageContext matchVariableUsages(EList<VariableUsage> vuList) {
-		EList<ComputedUsageContext> cucList = pcmInstance.getComputedUsage()
-				.getUsageContexts_ComputedUsage();
-		for (ComputedUsageContext cuc : cucList) {
-			if (cuc.getAssemblyContext_ComputedUsageContext().getId().equals(
-					getAssCtx().getId())) {
-				Input input = cuc.getInput_ComputedUsageContext();
-				EList<VariableUsage> vuList2 = input
-						.getParameterChacterisations_Input();
-
-				// logger.debug("List1: "+vuList);
-				// logger.debug("List2: "+vuList2);
-
-				if (areEqual(vuList, vuList2)) {
-					// logger.debug("Are Equal Successful!");
-					return cuc;
-				}
+		ComputedUsageContext cuc = pcmInstance.getComputedUsageContextIndex()
+				.find(getAssCtx(), vuList);
+		if (cuc == null) {
+			logger.debug("Matching Input Variables for External Call failed.");
+		}
+		return cuc;
+	}
+
+	/**
+	 * The maps are created when they are first used and only if both computed
+	 * contexts are set. They are attached to the computed allocation context,
+	 * so that all context wrappers of the same contexts share them. The
+	 * setters reset the maps of this context wrapper, and the maps notice when
+	 * the lists of the computed contexts change (see
+	 * {@link ComputedContextTables}), then the maps are created again. Reading
+	 * the maps otherwise does not check the contexts again.
+	 * 
+	 * @return the maps derived from the current computed contexts.
+	 */
+	private ComputedContextTables getTables() {
+		if (compUsgCtx == null || compAllCtx == null) {
+			return ComputedContextTables.EMPTY;
+		}
+		if (tables == null || tables.isStale()) {
+			tables = ComputedContextTables.getExisting(this);
+			if (tables == null) {
+				tables = new ComputedContextTables(this);
+				readComputedContextsToHashMaps(tables);
+				tables.attach();
 			}
 		}
-		logger.debug("Matching Input Variables for External Call failed.");
-		return null;
+		return tables;
 	}
 
-	private void readComputedContextsToHashMaps() {
+	private void readComputedContextsToHashMaps(ComputedContextTables tables) {
+		HashMap<AbstractBranchTransition, Double> branchProbs = tables.branchProbs;
+		HashMap<AbstractLoopAction, ManagedPMF> loopIters = tables.loopIters;
+		ResourceDemandCache resDemands = tables.resDemands;
+		HashMap<ParametricResourceDemand, ProcessingResourceSpecification> procResources = tables.procResources;
+		CallsToLinkResourcesMap linkResources = tables.linkResources;
+		HashMap<ExternalCallAction, Double> inputParameterBytesizes = tables.inputParameterBytesizes;
+		HashMap<ExternalCallAction, Double> outputParameterBytesizes = tables.outputParameterBytesizes;
+
 		EList<BranchProbability> bpList = compUsgCtx
 				.getBranchProbabilities_ComputedUsageContext();
 		for (BranchProbability bp : bpList) {
@@ -1657,10 +1458,11 @@ public class ContextWrapper implements Cloneable {
 		for (ResourceDemand rd : rdList) {
 			// These are already solved expressions, they do not contain
 			// variables.
-			String spec = rd.getSpecification_ResourceDemand()
-					.getSpecification();
-
-			Expression rdExpression = ExpressionHelper.parseToExpression(spec);
+			Expression rdExpression = SolvedResourceDemand.getSolvedExpression(rd);
+			if (rdExpression == null) {
+				rdExpression = ExpressionHelper.parseToExpression(rd
+						.getSpecification_ResourceDemand().getSpecification());
+			}
 			ExpressionToPDFWrapper rdWrapper = null;
 		
 			try {
@@ -1668,7 +1470,7 @@ public class ContextWrapper implements Cloneable {
 					.createExpressionToPDFWrapper(rdExpression);
 			} catch (Exception e){
 				throw new IllegalArgumentException(
-						"Could not derive a PDF from expression \"" + spec +
+						"Could not derive a PDF from expression \"" + ExpressionHelper.printExpression(rdExpression) +
 						"\"; Exception type: " + e.getClass().getName() +
 						"; Error message: \"" + e.getMessage() + "\"");
 			}
@@ -1693,39 +1495,29 @@ public class ContextWrapper implements Cloneable {
 
 		// Store the mapping which ParametricResourceDemand accesses which
 		// Resource in this context.
+		ResourceEnvironmentIndex resourceEnvironmentIndex = pcmInstance
+				.getResourceEnvironmentIndex();
 		for (ResourceDemand rd : rdList) {
 			ParametricResourceDemand prd = rd
 					.getParametricResourceDemand_ResourceDemand();
 			ProcessingResourceType prt = prd
 					.getRequiredResource_ParametricResourceDemand();
-			EList<ProcessingResourceSpecification> prsList = allCtx
-					.getResourceContainer_AllocationContext()
-					.getActiveResourceSpecifications_ResourceContainer();
-			for (ProcessingResourceSpecification prs : prsList) {
-				ProcessingResourceType prsType = prs
-						.getActiveResourceType_ActiveResourceSpecification();
-				if (prsType.getId().equals(prt.getId())) {
+			// special case for system external calls, the container is not
+			// part of a resource environment of the base model set:
+			if (PCMInstance.isSystemExternalResourceType(prt)) {
+				procResources.put(prd, pcmInstance.getSystemExternalResourceSpecification());
+			} else {
+				ProcessingResourceSpecification prs = resourceEnvironmentIndex
+						.getProcessingResourceSpecification(
+								allCtx.getResourceContainer_AllocationContext(), prt);
+				if (prs != null) {
 					procResources.put(prd, prs);
 				}
 			}
-			
-			// special case for system external calls:
-			if (prt.getEntityName().equals("SystemExternalResource")){
-				EList<ResourceContainer> containerList = getPcmInstance().getResourceEnvironment().getResourceContainer_ResourceEnvironment();
-				for (ResourceContainer container : containerList){
-					if (container.getEntityName().equals("SystemExternalResourceContainer")){
-						ProcessingResourceSpecification prs = container.getActiveResourceSpecifications_ResourceContainer().get(0);
-						procResources.put(prd,prs);
-					}
-				}
-			}
-			
 		}
 
 		EList<ExternalCallInput> eciList = compUsgCtx
 				.getExternalCallInput_ComputedUsageContext();
-		EList<LinkingResource> lrList = pcmInstance.getResourceEnvironment()
-				.getLinkingResources__ResourceEnvironment();
 		ResourceContainer rc1 = allCtx.getResourceContainer_AllocationContext();
 		for (ExternalCallInput eci : eciList) {
 			ExternalCallAction eca = eci
@@ -1741,27 +1533,12 @@ public class ContextWrapper implements Cloneable {
 				.getResourceContainer_AllocationContext();
 
 				if (rc1 != rc2) {
-					for (LinkingResource lr : lrList) {
-
-						// ------------------------------
-						// contains() does NOT work (fb)!
-						// ------------------------------
-						// if
-						// (lr.getFromResourceContainer_LinkingResource().contains(rc1)
-						// &&
-						// lr.getToResourceContainer_LinkingResource().contains(rc2)){
-
-						boolean rc1Contained = exists(lr
-								.getConnectedResourceContainers_LinkingResource(),
-								rc1);
-						boolean rc2Contained = exists(lr
-								.getConnectedResourceContainers_LinkingResource(),
-								rc2);
-						if (rc1Contained && rc2Contained) {
-							CommunicationLinkResourceSpecification clrs = lr
-							.getCommunicationLinkResourceSpecifications_LinkingResource();
-							linkResources.put(eca, nextAllCtx, clrs);
-						}
+					// the containers are matched by id, contains() does NOT
+					// work (fb)!
+					CommunicationLinkResourceSpecification clrs = resourceEnvironmentIndex
+							.getCommunicationLinkResourceSpecification(rc1, rc2);
+					if (clrs != null) {
+						linkResources.put(eca, nextAllCtx, clrs);
 					}
 				}
 			}
@@ -1859,6 +1636,129 @@ public class ContextWrapper implements Cloneable {
 	}
 }
 
+/**
+ * The maps a {@link ContextWrapper} derives from its computed usage and
+ * computed allocation context: branch probabilities, loop iterations, resource
+ * demands and the resources they are issued to, linking resources and
+ * parameter byte sizes. The maps are filled once and not changed afterwards,
+ * so they can be shared by all context wrappers of the same contexts.
+ * 
+ * The maps are attached as adapter to the computed allocation context and the
+ * computed usage context. They record the contexts they were derived from and
+ * become stale as soon as one of the lists of these contexts changes, i.e.,
+ * an entry is added, removed or replaced. Changes within an entry, e.g., a
+ * new specification of an existing branch probability, are not noticed; the
+ * entries of the computed contexts must not be changed once they are added.
+ */
+class ComputedContextTables extends AdapterImpl {
+
+	/** The maps of context wrappers without computed contexts. */
+	static final ComputedContextTables EMPTY = new ComputedContextTables();
+
+	final HashMap<AbstractBranchTransition, Double> branchProbs = new HashMap<AbstractBranchTransition, Double>();
+	final HashMap<AbstractLoopAction, ManagedPMF> loopIters = new HashMap<AbstractLoopAction, ManagedPMF>();
+	/**
+	 * Contains the already solved resource demand in time on the specific
+	 * processor
+	 */
+	final ResourceDemandCache resDemands = new ResourceDemandCache();
+	final HashMap<ParametricResourceDemand, ProcessingResourceSpecification> procResources = new HashMap<ParametricResourceDemand, ProcessingResourceSpecification>();
+	final CallsToLinkResourcesMap linkResources = new CallsToLinkResourcesMap();
+	final HashMap<ExternalCallAction, Double> inputParameterBytesizes = new HashMap<ExternalCallAction, Double>();
+	final HashMap<ExternalCallAction, Double> outputParameterBytesizes = new HashMap<ExternalCallAction, Double>();
+
+	private final ComputedUsageContext compUsgCtx;
+	private final ComputedAllocationContext compAllCtx;
+	private final AllocationContext allCtx;
+	private final List<AssemblyContext> assCtxList;
+	private boolean stale = false;
+
+	private ComputedContextTables() {
+		this.compUsgCtx = null;
+		this.compAllCtx = null;
+		this.allCtx = null;
+		this.assCtxList = null;
+	}
+
+	/**
+	 * Creates empty maps for the current contexts of the context wrapper.
+	 * 
+	 * @param contextWrapper
+	 */
+	ComputedContextTables(ContextWrapper contextWrapper) {
+		this.compUsgCtx = contextWrapper.getCompUsgCtx();
+		this.compAllCtx = contextWrapper.getCompAllCtx();
+		this.allCtx = contextWrapper.getAllCtx();
+		this.assCtxList = new ArrayList<AssemblyContext>(contextWrapper.getAssCtxList());
+	}
+
+	/**
+	 * @param contextWrapper
+	 * @return the maps attached to the computed allocation context of the
+	 *         context wrapper that are valid for its current contexts, or null.
+	 */
+	static ComputedContextTables getExisting(ContextWrapper contextWrapper) {
+		for (Adapter adapter : contextWrapper.getCompAllCtx().eAdapters()) {
+			if (adapter instanceof ComputedContextTables && !((ComputedContextTables) adapter).stale
+					&& ((ComputedContextTables) adapter).isTableOf(contextWrapper)) {
+				return (ComputedContextTables) adapter;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Attaches the maps to their computed contexts, replacing the stale maps
+	 * attached to the computed allocation context before. Maps of other
+	 * assembly or allocation contexts stay attached, as context wrappers may
+	 * still use them and they must notice changes of the contexts.
+	 */
+	void attach() {
+		Iterator<Adapter> adapters = compAllCtx.eAdapters().iterator();
+		while (adapters.hasNext()) {
+			Adapter adapter = adapters.next();
+			if (adapter instanceof ComputedContextTables && ((ComputedContextTables) adapter).stale) {
+				adapters.remove();
+				((ComputedContextTables) adapter).compUsgCtx.eAdapters().remove(adapter);
+			}
+		}
+		compAllCtx.eAdapters().add(this);
+		compUsgCtx.eAdapters().add(this);
+	}
+
+	/**
+	 * @param contextWrapper
+	 * @return true if the maps were derived from the current contexts of the
+	 *         context wrapper.
+	 */
+	boolean isTableOf(ContextWrapper contextWrapper) {
+		return compUsgCtx == contextWrapper.getCompUsgCtx()
+				&& compAllCtx == contextWrapper.getCompAllCtx()
+				&& allCtx == contextWrapper.getAllCtx()
+				&& assCtxList.equals(contextWrapper.getAssCtxList());
+	}
+
+	/**
+	 * @return true if the computed contexts have changed since the maps were
+	 *         created.
+	 */
+	boolean isStale() {
+		return stale;
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		if (!notification.isTouch()) {
+			stale = true;
+		}
+	}
+
+	@Override
+	public boolean isAdapterForType(Object type) {
+		return type == ComputedContextTables.class;
+	}
+}
+
 /**
  * Cache for the solved resource demands. Stores both pdfs and constant demands.
  * Offers methods to retrieve the actual demand for a ParametricResourceDemand
@@ -1933,41 +1833,37 @@ class ResourceDemandCache {
 /**
  * Stores triples of {@link ExternalCallAction}, {@link AllocationContext}, and {@link CommunicationLinkResourceSpecification}
  * to retrieve the linking resource used if the call is issued to the allocation context.
- * So to say, realizes something like a 
- * Map<ExternalCallAction,Map<AllocationContext,CommunicationLinkResourceSpecification>>.
- * But does not use only maps internally because not so many elements are expected.  
+ * Realizes a 
+ * Map<ExternalCallAction,Map<AllocationContext,CommunicationLinkResourceSpecification>>,
+ * the allocation contexts are matched by id. The first linking resource stored for
+ * a call and an allocation context is used.  
  *  
  * @author martens
  *
  */
 class CallsToLinkResourcesMap {
 	
-	Map<ExternalCallAction,List<Pair<AllocationContext,CommunicationLinkResourceSpecification>>> internalMap = new HashMap<ExternalCallAction, List<Pair<AllocationContext,CommunicationLinkResourceSpecification>>>();
+	Map<ExternalCallAction,Map<String,CommunicationLinkResourceSpecification>> internalMap = new HashMap<ExternalCallAction, Map<String,CommunicationLinkResourceSpecification>>();
 
 	public void put(ExternalCallAction eca, AllocationContext nextAllCtx,
 			CommunicationLinkResourceSpecification clrs) {
-		Pair<AllocationContext,CommunicationLinkResourceSpecification> pair = new Pair<AllocationContext, CommunicationLinkResourceSpecification>(nextAllCtx, clrs);
-		List<Pair<AllocationContext,CommunicationLinkResourceSpecification>> listForEca = internalMap.get(eca);
-		if (listForEca == null){
-			listForEca = new ArrayList<Pair<AllocationContext,CommunicationLinkResourceSpecification>>();
-			internalMap.put(eca, listForEca);
+		Map<String,CommunicationLinkResourceSpecification> mapForEca = internalMap.get(eca);
+		if (mapForEca == null){
+			mapForEca = new HashMap<String, CommunicationLinkResourceSpecification>();
+			internalMap.put(eca, mapForEca);
+		}
+		if (!mapForEca.containsKey(nextAllCtx.getId())){
+			mapForEca.put(nextAllCtx.getId(), clrs);
 		}
-		listForEca.add(pair);
-		
 	}
 
 	public CommunicationLinkResourceSpecification get(ExternalCallAction eca,
 			AllocationContext allCtx) {
-		List<Pair<AllocationContext,CommunicationLinkResourceSpecification>> listForEca = internalMap.get(eca);
-		if (listForEca == null){
+		Map<String,CommunicationLinkResourceSpecification> mapForEca = internalMap.get(eca);
+		if (mapForEca == null){
 			return null;
 		}
-		for (Pair<AllocationContext, CommunicationLinkResourceSpecification> pair : listForEca) {
-			if (pair.getFirst().getId().equals(allCtx.getId())){
-				return pair.getSecond();
-			}
-		}
-		return null;
+		return mapForEca.get(allCtx.getId());
 	}
 	
 }
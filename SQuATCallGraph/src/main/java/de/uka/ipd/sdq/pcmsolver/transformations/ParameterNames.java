@@ -0,0 +1,55 @@
+package de.uka.ipd.sdq.pcmsolver.transformations;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import de.uka.ipd.sdq.stoex.AbstractNamedReference;
+import de.uka.ipd.sdq.stoex.NamespaceReference;
+
+/**
+ * Symbol table of the full names of parameters, e.g., "file.INNER" for a
+ * namespace reference. The names are interned, so that all references to the
+ * same parameter share one symbol. The names are not remembered per reference,
+ * as the references of expressions are mostly short-lived copies; the
+ * {@link de.uka.ipd.sdq.pcmsolver.visitors.ExpressionHelper} determines the
+ * symbols of the variables of a specification once and keeps them with the
+ * parsed expression instead.
+ *
+ * The symbol table can be used concurrently.
+ */
+public class ParameterNames {
+
+	private static final ConcurrentMap<String, String> symbols = new ConcurrentHashMap<String, String>();
+
+	private ParameterNames() {
+	}
+
+	/**
+	 * @param ref
+	 * @return the full name of the referenced parameter, with the names of
+	 *         the namespaces separated by dots.
+	 */
+	public static String getSymbol(AbstractNamedReference ref) {
+		return getSymbol(getFullParameterName(ref));
+	}
+
+	/**
+	 * @param name
+	 *            the full name of a parameter.
+	 * @return the symbol of the parameter, which is equal to the name.
+	 */
+	public static String getSymbol(String name) {
+		String symbol = symbols.putIfAbsent(name, name);
+		return symbol == null ? name : symbol;
+	}
+
+	private static String getFullParameterName(AbstractNamedReference ref) {
+		StringBuilder name = new StringBuilder();
+		while (ref instanceof NamespaceReference) {
+			NamespaceReference nsRef = (NamespaceReference) ref;
+			name.append(nsRef.getReferenceName()).append('.');
+			ref = nsRef.getInnerReference_NamespaceReference();
+		}
+		return name.append(ref.getReferenceName()).toString();
+	}
+}
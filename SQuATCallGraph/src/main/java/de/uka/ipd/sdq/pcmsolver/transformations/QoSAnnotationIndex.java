@@ -0,0 +1,100 @@
+package de.uka.ipd.sdq.pcmsolver.transformations;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.palladiosimulator.pcm.qosannotations.QoSAnnotations;
+import org.palladiosimulator.pcm.qosannotations.SpecifiedQoSAnnotation;
+import org.palladiosimulator.pcm.qosannotations.qos_performance.SpecifiedExecutionTime;
+import org.palladiosimulator.pcm.qosannotations.qos_reliability.SpecifiedReliabilityAnnotation;
+import org.palladiosimulator.pcm.repository.Interface;
+import org.palladiosimulator.pcm.repository.OperationRequiredRole;
+import org.palladiosimulator.pcm.repository.Role;
+import org.palladiosimulator.pcm.repository.Signature;
+import org.palladiosimulator.pcm.system.System;
+
+/**
+ * Index of the QoS annotations of a system, keeping the first annotation of
+ * each system external call: execution times by the names of the required
+ * interface and the signature, reliabilities by the ids of the role and the
+ * signature.
+ */
+public class QoSAnnotationIndex {
+
+	/** By required interface name and service name. */
+	private final Map<String, SpecifiedExecutionTime> executionTimes = new HashMap<String, SpecifiedExecutionTime>();
+
+	/** By role id and signature id. */
+	private final Map<String, SpecifiedReliabilityAnnotation> reliabilityAnnotations = new HashMap<String, SpecifiedReliabilityAnnotation>();
+
+	/**
+	 * @param system
+	 *            the system whose annotations are indexed.
+	 */
+	public QoSAnnotationIndex(System system) {
+		for (QoSAnnotations annotations : system.getQosAnnotations_System()) {
+			for (SpecifiedQoSAnnotation annotation : annotations.getSpecifiedQoSAnnotations_QoSAnnotations()) {
+				if (annotation instanceof SpecifiedExecutionTime) {
+					add((SpecifiedExecutionTime) annotation);
+				} else if (annotation instanceof SpecifiedReliabilityAnnotation) {
+					add((SpecifiedReliabilityAnnotation) annotation);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param requiredInterface
+	 * @param signature
+	 * @return the first execution time annotated for the service of the
+	 *         required interface, or null.
+	 */
+	public SpecifiedExecutionTime getExecutionTime(Interface requiredInterface, Signature signature) {
+		return executionTimes.get(key(requiredInterface.getEntityName(), signature.getEntityName()));
+	}
+
+	/**
+	 * @param requiredRole
+	 *            the required role of the system.
+	 * @param signature
+	 * @return the first reliability annotation of the service of the required
+	 *         role, or null.
+	 */
+	public SpecifiedReliabilityAnnotation getReliabilityAnnotation(Role requiredRole, Signature signature) {
+		return reliabilityAnnotations.get(key(requiredRole.getId(), signature.getId()));
+	}
+
+	private void add(SpecifiedExecutionTime time) {
+		// TODO: I had to change RequiredRole to OperationRequiredRole for the code to compile.
+		// Check if this still works! FB, 13-06-2010
+		if (!(time.getRole_SpecifiedQoSAnnotation() instanceof OperationRequiredRole)
+				|| time.getSignature_SpecifiedQoSAnnation() == null) {
+			return;
+		}
+		OperationRequiredRole reqRole = (OperationRequiredRole) time.getRole_SpecifiedQoSAnnotation();
+		if (reqRole.getRequiredInterface__OperationRequiredRole() == null) {
+			return;
+		}
+		String key = key(reqRole.getRequiredInterface__OperationRequiredRole().getEntityName(),
+				time.getSignature_SpecifiedQoSAnnation().getEntityName());
+		if (!executionTimes.containsKey(key)) {
+			executionTimes.put(key, time);
+		}
+	}
+
+	private void add(SpecifiedReliabilityAnnotation annotation) {
+		if (annotation.getRole_SpecifiedQoSAnnotation() == null
+				|| annotation.getSignature_SpecifiedQoSAnnation() == null) {
+			return;
+		}
+		String key = key(annotation.getRole_SpecifiedQoSAnnotation().getId(),
+				annotation.getSignature_SpecifiedQoSAnnation().getId());
+		if (!reliabilityAnnotations.containsKey(key)) {
+			reliabilityAnnotations.put(key, annotation);
+		}
+	}
+
+	private static String key(String first, String second) {
+		return first + "|" + second;
+	}
+}
@@ -0,0 +1,169 @@
+package de.uka.ipd.sdq.pcmsolver.transformations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.palladiosimulator.pcm.resourceenvironment.CommunicationLinkResourceSpecification;
+import org.palladiosimulator.pcm.resourceenvironment.LinkingResource;
+import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
+import org.palladiosimulator.pcm.resourceenvironment.ResourceContainer;
+import org.palladiosimulator.pcm.resourceenvironment.ResourceEnvironment;
+import org.palladiosimulator.pcm.resourcetype.ProcessingResourceType;
+
+/**
+ * Index of the processing resources of each resource container and of the
+ * first linking resource between each pair of containers. Containers added
+ * later on, like the system external resource container, have to be added
+ * with {@link #addResourceContainer(ResourceContainer)}.
+ */
+public class ResourceEnvironmentIndex {
+
+	/** By the ids of the two connected containers. */
+	private final Map<String, CommunicationLinkResourceSpecification> links = new HashMap<String, CommunicationLinkResourceSpecification>();
+
+	/** By container id. */
+	private final Map<String, ContainerIndex> containers = new ConcurrentHashMap<String, ContainerIndex>();
+
+	/** The first container with each entity name. */
+	private final Map<String, ResourceContainer> containersByName = new ConcurrentHashMap<String, ResourceContainer>();
+
+	/**
+	 * @param resourceEnvironment
+	 *            the resource environment to index.
+	 */
+	public ResourceEnvironmentIndex(ResourceEnvironment resourceEnvironment) {
+		for (ResourceContainer container : resourceEnvironment.getResourceContainer_ResourceEnvironment()) {
+			addResourceContainer(container);
+		}
+		for (LinkingResource lr : resourceEnvironment.getLinkingResources__ResourceEnvironment()) {
+			List<ResourceContainer> connected = lr.getConnectedResourceContainers_LinkingResource();
+			for (ResourceContainer from : connected) {
+				for (ResourceContainer to : connected) {
+					String key = key(from, to);
+					if (!links.containsKey(key)) {
+						links.put(key, lr.getCommunicationLinkResourceSpecifications_LinkingResource());
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds a container and its nested containers to the index.
+	 *
+	 * @param container
+	 */
+	public void addResourceContainer(ResourceContainer container) {
+		if (container.getId() != null) {
+			containers.put(container.getId(), new ContainerIndex(container));
+		}
+		if (container.getEntityName() != null && !containersByName.containsKey(container.getEntityName())) {
+			containersByName.put(container.getEntityName(), container);
+		}
+		for (ResourceContainer nested : container.getNestedResourceContainers__ResourceContainer()) {
+			addResourceContainer(nested);
+		}
+	}
+
+	/**
+	 * @param id
+	 * @return the container with the given id, or null.
+	 */
+	public ResourceContainer getResourceContainer(String id) {
+		ContainerIndex containerIndex = containers.get(id);
+		return containerIndex == null ? null : containerIndex.container;
+	}
+
+	/**
+	 * @param entityName
+	 * @return the first container with the given entity name, or null.
+	 */
+	public ResourceContainer getResourceContainerByName(String entityName) {
+		return containersByName.get(entityName);
+	}
+
+	/**
+	 * @param container
+	 * @param resourceTypeName
+	 * @return the processing resource specifications of the container whose
+	 *         resource type has the given entity name, in the order of the
+	 *         model. The list must not be modified.
+	 */
+	public List<ProcessingResourceSpecification> getProcessingResourceSpecifications(ResourceContainer container,
+			String resourceTypeName) {
+		List<ProcessingResourceSpecification> specifications = getContainerIndex(container).specificationsByTypeName
+				.get(resourceTypeName);
+		if (specifications == null) {
+			return Collections.emptyList();
+		}
+		return specifications;
+	}
+
+	/**
+	 * @param container
+	 * @param resourceType
+	 * @return the last processing resource specification of the container for
+	 *         the resource type, matched by id, or null.
+	 */
+	public ProcessingResourceSpecification getProcessingResourceSpecification(ResourceContainer container,
+			ProcessingResourceType resourceType) {
+		return getContainerIndex(container).specificationsByTypeId.get(resourceType.getId());
+	}
+
+	/**
+	 * @param from
+	 * @param to
+	 * @return the specification of the first linking resource that connects
+	 *         both containers, or null if they are not connected.
+	 */
+	public CommunicationLinkResourceSpecification getCommunicationLinkResourceSpecification(ResourceContainer from,
+			ResourceContainer to) {
+		return links.get(key(from, to));
+	}
+
+	/**
+	 * Containers that are not part of the resource environment are indexed
+	 * on each lookup.
+	 */
+	private ContainerIndex getContainerIndex(ResourceContainer container) {
+		ContainerIndex containerIndex = container.getId() == null ? null : containers.get(container.getId());
+		if (containerIndex == null || containerIndex.container != container) {
+			containerIndex = new ContainerIndex(container);
+		}
+		return containerIndex;
+	}
+
+	private static String key(ResourceContainer from, ResourceContainer to) {
+		return from.getId() + "|" + to.getId();
+	}
+
+	/**
+	 * The processing resource specifications of a single container.
+	 */
+	private static class ContainerIndex {
+		private final ResourceContainer container;
+		/** By entity name of the resource type, in the order of the model. */
+		private final Map<String, List<ProcessingResourceSpecification>> specificationsByTypeName = new HashMap<String, List<ProcessingResourceSpecification>>();
+		/** The last specification for each resource type id. */
+		private final Map<String, ProcessingResourceSpecification> specificationsByTypeId = new HashMap<String, ProcessingResourceSpecification>();
+
+		ContainerIndex(ResourceContainer container) {
+			this.container = container;
+			for (ProcessingResourceSpecification prs : container.getActiveResourceSpecifications_ResourceContainer()) {
+				ProcessingResourceType type = prs.getActiveResourceType_ActiveResourceSpecification();
+				List<ProcessingResourceSpecification> specifications = specificationsByTypeName
+						.get(type.getEntityName());
+				if (specifications == null) {
+					specifications = new ArrayList<ProcessingResourceSpecification>();
+					specificationsByTypeName.put(type.getEntityName(), specifications);
+				}
+				specifications.add(prs);
+				specificationsByTypeId.put(type.getId(), prs);
+			}
+		}
+	}
+}
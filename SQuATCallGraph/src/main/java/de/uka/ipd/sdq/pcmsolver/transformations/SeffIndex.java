@@ -0,0 +1,101 @@
+package de.uka.ipd.sdq.pcmsolver.transformations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+import org.palladiosimulator.pcm.core.composition.AssemblyContext;
+import org.palladiosimulator.pcm.repository.BasicComponent;
+import org.palladiosimulator.pcm.repository.Signature;
+import org.palladiosimulator.pcm.seff.ExternalCallAction;
+import org.palladiosimulator.pcm.seff.ServiceEffectSpecification;
+
+/**
+ * Index of the SEFFs that handle the calls of the usage model and of the
+ * SEFFs, resolved once per call and assembly contexts of the caller. As
+ * before, the first SEFF of the component whose described service has the
+ * name of the called signature is used.
+ */
+public class SeffIndex {
+	private static final Logger logger = Logger.getLogger(SeffIndex.class.getName());
+
+	/** Marks calls and services without SEFF. */
+	private static final Object NO_SEFF = new Object();
+
+	/** By component id and service name. */
+	private final Map<String, Object> seffsByService = new ConcurrentHashMap<String, Object>();
+
+	/** By the ids of the calling assembly contexts and the external call. */
+	private final Map<String, Object> seffsByCall = new ConcurrentHashMap<String, Object>();
+
+	/**
+	 * @param component
+	 * @param signature
+	 * @return the SEFF of the component that describes the service, or null.
+	 */
+	public ServiceEffectSpecification getSeff(BasicComponent component, Signature signature) {
+		String key = component.getId() + "|" + signature.getEntityName();
+		Object seff = seffsByService.get(key);
+		if (seff == null) {
+			seff = NO_SEFF;
+			for (ServiceEffectSpecification candidate : component.getServiceEffectSpecifications__BasicComponent()) {
+				if (candidate.getDescribedService__SEFF().getEntityName().equals(signature.getEntityName())) {
+					seff = candidate;
+					break;
+				}
+			}
+			seffsByService.put(key, seff);
+		}
+		return seff == NO_SEFF ? null : (ServiceEffectSpecification) seff;
+	}
+
+	/**
+	 * See {@link ContextWrapper#getNextSEFF(ExternalCallAction)}.
+	 *
+	 * @param contextWrapper
+	 *            the context of the caller.
+	 * @param eca
+	 * @return the SEFF that handles the call, or null for system external
+	 *         calls.
+	 */
+	public ServiceEffectSpecification getSeff(ContextWrapper contextWrapper, ExternalCallAction eca) {
+		String key = key(contextWrapper.getAssCtxList(), eca);
+		Object seff = seffsByCall.get(key);
+		if (seff == null) {
+			seff = findSeff(contextWrapper, eca);
+			seffsByCall.put(key, seff == null ? NO_SEFF : seff);
+		}
+		return seff == NO_SEFF ? null : (ServiceEffectSpecification) seff;
+	}
+
+	private ServiceEffectSpecification findSeff(ContextWrapper contextWrapper, ExternalCallAction eca) {
+		Signature sig = eca.getCalledService_ExternalService();
+
+		// Get the list of providing AssemblyContexts for this call:
+		List<AssemblyContext> acList = contextWrapper.findProvidingAssemblyContexts(eca, false);
+		if (acList.size() == 0) {
+			// If no providing AssemblyContexts are found, the call is a system
+			// external call, and there is no next SEFF for it:
+			return null;
+		}
+
+		// Retrieve the actual SEFF that handles the call:
+		AssemblyContext ac = acList.get(acList.size() - 1);
+		ServiceEffectSpecification seff = getSeff((BasicComponent) ac.getEncapsulatedComponent__AssemblyContext(),
+				sig);
+		if (seff == null) {
+			// should not happen:
+			logger.error("Could not find next SEFF " + "for ExternalCallAction " + sig + "!");
+		}
+		return seff;
+	}
+
+	private static String key(List<AssemblyContext> assemblyContexts, ExternalCallAction eca) {
+		StringBuilder key = new StringBuilder();
+		for (AssemblyContext assemblyContext : assemblyContexts) {
+			key.append(assemblyContext.getId()).append('|');
+		}
+		return key.append(eca.getId()).toString();
+	}
+}
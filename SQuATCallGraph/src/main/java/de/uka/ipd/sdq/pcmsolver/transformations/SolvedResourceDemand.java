@@ -0,0 +1,137 @@
+package de.uka.ipd.sdq.pcmsolver.transformations;
+
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+import org.palladiosimulator.pcm.core.PCMRandomVariable;
+import org.palladiosimulator.solver.context.computed_allocation.ComputedAllocation;
+import org.palladiosimulator.solver.context.computed_allocation.ComputedAllocationContext;
+import org.palladiosimulator.solver.context.computed_allocation.ResourceDemand;
+
+import de.uka.ipd.sdq.pcmsolver.visitors.ExpressionHelper;
+import de.uka.ipd.sdq.stoex.Expression;
+
+/**
+ * The solved expression of a computed {@link ResourceDemand}. The
+ * {@link ContextWrapper} uses the expression itself instead of parsing the
+ * specification of the demand. The specification is left empty until the
+ * computed contexts are saved, then it is printed from the expression (see
+ * {@link #printSpecifications(ComputedAllocation)}).
+ *
+ * The expression is attached as adapter to the resource demand. It is only
+ * used as long as the specification of the demand is the one it was printed
+ * to, which is checked by identity. Copies of the computed contexts get the
+ * adapter through {@link #copyAdapters(Map)}.
+ */
+public class SolvedResourceDemand extends AdapterImpl {
+
+	private final Expression expression;
+	/** The specification printed from the expression, or null. */
+	private String specification;
+
+	private SolvedResourceDemand(Expression expression, String specification) {
+		this.expression = expression;
+		this.specification = specification;
+	}
+
+	/**
+	 * Attaches the solved expression to the resource demand, whose
+	 * specification must be set to an empty random variable.
+	 *
+	 * @param rd
+	 * @param solvedExpression
+	 *            the solved expression, it must not be modified afterwards.
+	 */
+	public static void attach(ResourceDemand rd, Expression solvedExpression) {
+		PCMRandomVariable rv = rd.getSpecification_ResourceDemand();
+		if (rv == null || solvedExpression == null) {
+			return;
+		}
+		remove(rd);
+		rd.eAdapters().add(new SolvedResourceDemand(solvedExpression, rv.getSpecification()));
+	}
+
+	/**
+	 * @param rd
+	 * @return the solved expression of the resource demand, or null if it is
+	 *         not known or the specification has changed. The expression must
+	 *         not be modified.
+	 */
+	public static Expression getSolvedExpression(ResourceDemand rd) {
+		SolvedResourceDemand solved = get(rd);
+		return solved == null ? null : solved.expression;
+	}
+
+	/**
+	 * Prints the specifications of the resource demands that are not printed
+	 * yet.
+	 *
+	 * @param computedAllocation
+	 */
+	public static void printSpecifications(ComputedAllocation computedAllocation) {
+		for (ComputedAllocationContext cac : computedAllocation.getComputedAllocationContexts_ComputedAllocation()) {
+			for (ResourceDemand rd : cac.getResourceDemands_ComputedAllocationContext()) {
+				SolvedResourceDemand solved = get(rd);
+				if (solved != null && solved.specification == null) {
+					solved.specification = ExpressionHelper.printExpression(solved.expression);
+					rd.getSpecification_ResourceDemand().setSpecification(solved.specification);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Attaches the solved expressions of copied resource demands to their
+	 * copies.
+	 *
+	 * @param copies
+	 *            the copy of each object, e.g., an
+	 *            {@link org.eclipse.emf.ecore.util.EcoreUtil.Copier}.
+	 */
+	public static void copyAdapters(Map<EObject, EObject> copies) {
+		for (Map.Entry<EObject, EObject> entry : copies.entrySet()) {
+			if (entry.getKey() instanceof ResourceDemand) {
+				SolvedResourceDemand solved = get((ResourceDemand) entry.getKey());
+				if (solved != null) {
+					ResourceDemand copy = (ResourceDemand) entry.getValue();
+					remove(copy);
+					copy.eAdapters().add(new SolvedResourceDemand(solved.expression, solved.specification));
+				}
+			}
+		}
+	}
+
+	@Override
+	public boolean isAdapterForType(Object type) {
+		return type == SolvedResourceDemand.class;
+	}
+
+	/**
+	 * @return the adapter of the resource demand if its specification is
+	 *         unchanged, or null.
+	 */
+	private static SolvedResourceDemand get(ResourceDemand rd) {
+		for (Adapter adapter : rd.eAdapters()) {
+			if (adapter instanceof SolvedResourceDemand) {
+				SolvedResourceDemand solved = (SolvedResourceDemand) adapter;
+				PCMRandomVariable rv = rd.getSpecification_ResourceDemand();
+				if (rv != null && solved.specification == rv.getSpecification()) {
+					return solved;
+				}
+				return null;
+			}
+		}
+		return null;
+	}
+
+	private static void remove(ResourceDemand rd) {
+		for (Adapter adapter : rd.eAdapters()) {
+			if (adapter instanceof SolvedResourceDemand) {
+				rd.eAdapters().remove(adapter);
+				return;
+			}
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package de.uka.ipd.sdq.pcmsolver.transformations;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.palladiosimulator.pcm.parameter.VariableCharacterisation;
+import org.palladiosimulator.pcm.parameter.VariableCharacterisationType;
+import org.palladiosimulator.pcm.parameter.VariableUsage;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsageContext;
+import org.palladiosimulator.solver.context.computed_usage.ExternalCallOutput;
+import org.palladiosimulator.solver.context.computed_usage.Input;
+
+/**
+ * The characterisations of the parameters known in a
+ * {@link ComputedUsageContext}, by the symbol of the parameter (see
+ * {@link ParameterNames}) and the characterisation type. The parameters are
+ * the input of the context, i.e., the input parameters and the component
+ * parameters, followed by the outputs of the external calls. If a parameter
+ * is characterised several times, the first variable usage counts, and within
+ * it the first characterisation of each type.
+ *
+ * The table is attached as adapter to the computed usage context. It is
+ * created again if parameters have been added to the context since, i.e., if
+ * the input has been replaced, the last input parameter has changed, or
+ * external call outputs or their parameters have been added.
+ */
+public class UsageContextParameters extends AdapterImpl {
+
+	private final Map<String, Map<VariableCharacterisationType, String>> inputCharacterisations = new HashMap<String, Map<VariableCharacterisationType, String>>();
+	private final Map<String, Map<VariableCharacterisationType, String>> characterisations = new HashMap<String, Map<VariableCharacterisationType, String>>();
+
+	/** The state of the context the table was created from. */
+	private final Input input;
+	private final int inputParameters;
+	private final VariableUsage lastInputParameter;
+	private final int outputs;
+	private final int lastOutputParameters;
+
+	private UsageContextParameters(ComputedUsageContext cuc) {
+		Input input = cuc.getInput_ComputedUsageContext();
+		List<VariableUsage> inputParameters = getInputParameters(input);
+		List<ExternalCallOutput> outputs = cuc.getExternalCallOutput_ComputedUsageContext();
+		this.input = input;
+		this.inputParameters = inputParameters.size();
+		this.lastInputParameter = getLast(inputParameters);
+		this.outputs = outputs.size();
+		this.lastOutputParameters = getLastOutputParameters(outputs);
+
+		if (input != null) {
+			for (VariableUsage vu : input.getParameterChacterisations_Input()) {
+				add(inputCharacterisations, vu);
+				add(characterisations, vu);
+			}
+		}
+		for (ExternalCallOutput eco : cuc.getExternalCallOutput_ComputedUsageContext()) {
+			// TODO: recognise scopes
+			for (VariableUsage vu : eco.getParameterCharacterisations_ExternalCallOutput()) {
+				add(characterisations, vu);
+			}
+		}
+	}
+
+	/**
+	 * @param cuc
+	 * @return the parameters of the computed usage context.
+	 */
+	public static UsageContextParameters get(ComputedUsageContext cuc) {
+		for (Adapter adapter : cuc.eAdapters()) {
+			if (adapter instanceof UsageContextParameters) {
+				UsageContextParameters parameters = (UsageContextParameters) adapter;
+				if (parameters.isCurrent(cuc)) {
+					return parameters;
+				}
+				cuc.eAdapters().remove(adapter);
+				break;
+			}
+		}
+		UsageContextParameters parameters = new UsageContextParameters(cuc);
+		cuc.eAdapters().add(parameters);
+		return parameters;
+	}
+
+	/**
+	 * @param symbol
+	 * @return the characterisations of the parameter in the input of the
+	 *         context by type, or null if it is not part of the input. The map
+	 *         must not be modified.
+	 */
+	public Map<VariableCharacterisationType, String> getInputCharacterisations(String symbol) {
+		return inputCharacterisations.get(symbol);
+	}
+
+	/**
+	 * @param symbol
+	 * @return the characterisations of the parameter in the input or the
+	 *         external call outputs of the context by type, or null if it is
+	 *         unknown. The map must not be modified.
+	 */
+	public Map<VariableCharacterisationType, String> getCharacterisations(String symbol) {
+		return characterisations.get(symbol);
+	}
+
+	@Override
+	public boolean isAdapterForType(Object type) {
+		return type == UsageContextParameters.class;
+	}
+
+	/**
+	 * Parameters are only added to the end of the lists, overwritten input
+	 * parameters are removed before the new ones are added.
+	 */
+	private boolean isCurrent(ComputedUsageContext cuc) {
+		Input input = cuc.getInput_ComputedUsageContext();
+		List<VariableUsage> inputParameters = getInputParameters(input);
+		List<ExternalCallOutput> outputs = cuc.getExternalCallOutput_ComputedUsageContext();
+		return this.input == input && this.inputParameters == inputParameters.size()
+				&& this.lastInputParameter == getLast(inputParameters) && this.outputs == outputs.size()
+				&& this.lastOutputParameters == getLastOutputParameters(outputs);
+	}
+
+	private static void add(Map<String, Map<VariableCharacterisationType, String>> characterisations,
+			VariableUsage vu) {
+		String symbol = ParameterNames.getSymbol(vu.getNamedReference__VariableUsage());
+		if (characterisations.containsKey(symbol)) {
+			return;
+		}
+		Map<VariableCharacterisationType, String> byType = new EnumMap<VariableCharacterisationType, String>(
+				VariableCharacterisationType.class);
+		for (VariableCharacterisation vc : vu.getVariableCharacterisation_VariableUsage()) {
+			if (!byType.containsKey(vc.getType())) {
+				byType.put(vc.getType(), vc.getSpecification_VariableCharacterisation().getSpecification());
+			}
+		}
+		characterisations.put(symbol, byType);
+	}
+
+	private static List<VariableUsage> getInputParameters(Input input) {
+		if (input == null) {
+			return Collections.emptyList();
+		}
+		return input.getParameterChacterisations_Input();
+	}
+
+	private static VariableUsage getLast(List<VariableUsage> parameters) {
+		return parameters.isEmpty() ? null : parameters.get(parameters.size() - 1);
+	}
+
+	private static int getLastOutputParameters(List<ExternalCallOutput> outputs) {
+		if (outputs.isEmpty()) {
+			return 0;
+		}
+		return outputs.get(outputs.size() - 1).getParameterCharacterisations_ExternalCallOutput().size();
+	}
+}
@@ -1,27 +1,118 @@
 package de.uka.ipd.sdq.pcmsolver.visitors;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.antlr.runtime.ANTLRStringStream;
 import org.antlr.runtime.CommonTokenStream;
 import org.antlr.runtime.RecognitionException;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.EcoreUtil.Copier;
 import org.palladiosimulator.pcm.core.PCMRandomVariable;
+import org.palladiosimulator.pcm.parameter.CharacterisedVariable;
+import org.palladiosimulator.pcm.parameter.VariableCharacterisationType;
 import org.palladiosimulator.pcm.stochasticexpressions.parser.PCMStoExLexer;
 import org.palladiosimulator.pcm.stochasticexpressions.parser.PCMStoExParser;
 
 import de.uka.ipd.sdq.pcmsolver.transformations.ContextWrapper;
 import de.uka.ipd.sdq.pcmsolver.transformations.ExpressionToPDFWrapper;
+import de.uka.ipd.sdq.pcmsolver.transformations.ParameterNames;
+import de.uka.ipd.sdq.pcmsolver.transformations.UsageContextParameters;
 import de.uka.ipd.sdq.stoex.Expression;
+import de.uka.ipd.sdq.stoex.Variable;
 import de.uka.ipd.sdq.stoex.analyser.visitors.ExpressionInferTypeVisitor;
 import de.uka.ipd.sdq.stoex.analyser.visitors.StoExPrettyPrintVisitor;
 import de.uka.ipd.sdq.stoex.analyser.visitors.TypeEnum;
 
 public class ExpressionHelper {
 
+	/** The maximum number of parsed specifications kept in the cache. */
+	private static final int PARSE_CACHE_SIZE = 1024;
+
+	/**
+	 * The maximum number of solved expressions kept per specification, i.e.,
+	 * the number of different inputs a specification is solved for.
+	 */
+	private static final int SOLVED_CACHE_SIZE = 32;
+
+	/**
+	 * The parsed expressions by specification, the least recently used ones
+	 * are removed first. The cached expressions are never handed out.
+	 */
+	private static final Map<String, ParsedExpression> parseCache = new LinkedHashMap<String, ParsedExpression>(
+			PARSE_CACHE_SIZE, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, ParsedExpression> eldest) {
+			return size() > PARSE_CACHE_SIZE;
+		}
+	};
+
+	private static final AtomicLong parseCacheHits = new AtomicLong();
+	private static final AtomicLong parseCacheMisses = new AtomicLong();
+
 	/**
+	 * Parses the specification. The same specifications are parsed over and
+	 * over again, so the parsed expressions are cached. Each caller gets its
+	 * own copy of the expression and may modify it.
+	 * 
 	 * @param specification
+	 * @return the expression, or null if the specification could not be
+	 *         parsed.
 	 */
 	public static Expression parseToExpression(String specification) {
+		ParsedExpression parsedExpression = getParsedExpression(specification);
+		return parsedExpression == null ? null : EcoreUtil.copy(parsedExpression.expression);
+	}
+
+	/**
+	 * @param specification
+	 * @return the cached expression of the specification, or null if the
+	 *         specification could not be parsed.
+	 */
+	private static ParsedExpression getParsedExpression(String specification) {
+		ParsedExpression parsedExpression;
+		synchronized (parseCache) {
+			parsedExpression = parseCache.get(specification);
+		}
+		if (parsedExpression != null) {
+			parseCacheHits.incrementAndGet();
+			return parsedExpression;
+		}
+		parseCacheMisses.incrementAndGet();
+		Expression expression = parse(specification);
+		if (expression == null) {
+			return null;
+		}
+		parsedExpression = new ParsedExpression(expression);
+		synchronized (parseCache) {
+			parseCache.put(specification, parsedExpression);
+		}
+		return parsedExpression;
+	}
+
+	/**
+	 * @return the number of specifications found in the parse cache.
+	 */
+	public static long getParseCacheHits() {
+		return parseCacheHits.get();
+	}
+
+	/**
+	 * @return the number of specifications that had to be parsed.
+	 */
+	public static long getParseCacheMisses() {
+		return parseCacheMisses.get();
+	}
+
+	private static Expression parse(String specification) {
 		Expression expression = null;
 		PCMStoExLexer lexer = new PCMStoExLexer(
 				new ANTLRStringStream(specification));
@@ -38,29 +129,82 @@ public class ExpressionHelper {
 	public static String getSolvedExpressionAsString(String specification, ContextWrapper ctxWrp){
 		Expression solvedExpression = getSolvedExpression(specification, ctxWrp);
 		
-		StoExPrettyPrintVisitor printer = new StoExPrettyPrintVisitor();
-		// TODO: SQuAT FIX: added to String
-		String solvedExprString = (String)printer.doSwitch(solvedExpression).toString();
-		
 		if (solvedExpression == null){
 			throw new RuntimeException("Could not print solved expression "+specification);
 		}
 		
-		return solvedExprString;
+		return printExpression(solvedExpression);
+	}
+	
+	/**
+	 * Prints an expression, e.g., a solved expression, as specification. Only
+	 * needed where a specification is stored in the model; the expression
+	 * itself should be passed on where possible.
+	 * 
+	 * @param expression
+	 * @return the specification of the expression.
+	 */
+	public static String printExpression(Expression expression) {
+		StoExPrettyPrintVisitor printer = new StoExPrettyPrintVisitor();
+		// TODO: SQuAT FIX: added to String
+		return printer.doSwitch(expression).toString();
 	}
 	
+	/**
+	 * Solves the specification in the given context. The types of the parsed
+	 * expression are inferred once and cached together with it.
+	 * 
+	 * The solved expression only depends on the characterisations of the
+	 * variables the specification references, which are taken from the
+	 * computed usage context of the context wrapper. Thus, the solved
+	 * expressions are cached by specification and these characterisations.
+	 * Each caller gets its own copy of the solved expression.
+	 * 
+	 * Constant specifications, e.g., resource demands divided by the
+	 * processing rate, are evaluated by the
+	 * {@link LiteralExpressionEvaluator} without parsing them.
+	 * 
+	 * @param specification
+	 * @param ctxWrp
+	 * @return the solved expression.
+	 */
 	public static Expression getSolvedExpression(String specification,
 			ContextWrapper ctxWrp) {
-		Expression expr = parseToExpression(specification);
-		
-		ExpressionInferTypeVisitor inferTypeVisitor = new ExpressionInferTypeVisitor();
-		inferTypeVisitor.doSwitch(expr);
+		Expression literal = LiteralExpressionEvaluator.evaluate(specification);
+		if (literal != null) {
+			return literal;
+		}
 
-		HashMap<Expression, TypeEnum> typeAnnotation = inferTypeVisitor
-				.getTypeAnnotation();
+		ParsedExpression parsedExpression = getParsedExpression(specification);
+		if (parsedExpression == null) {
+			throw new RuntimeException("Could not parse expression "+specification);
+		}
+		String binding = parsedExpression.getBinding(ctxWrp);
+		if (binding != null) {
+			Expression solvedExpression = parsedExpression.getSolvedExpression(binding);
+			if (solvedExpression != null) {
+				return solvedExpression;
+			}
+		}
+
+		Expression solvedExpression = solve(parsedExpression, ctxWrp);
+		if (binding != null && solvedExpression != null) {
+			parsedExpression.putSolvedExpression(binding, solvedExpression);
+		}
+		return solvedExpression;
+	}
+
+	private static Expression solve(ParsedExpression parsedExpression,
+			ContextWrapper ctxWrp) {
+		Copier copier = new Copier();
+		Expression expr = (Expression) copier.copy(parsedExpression.expression);
+		copier.copyReferences();
+
+		HashMap<Expression, TypeEnum> typeAnnotation = parsedExpression
+				.getTypeAnnotation(copier);
 
 		ExpressionParameterSolverVisitor solveVisitor = new ExpressionParameterSolverVisitor(
-				typeAnnotation, ctxWrp);
+				typeAnnotation, parsedExpression.getVariableSymbols(copier), ctxWrp);
 		
 		return (Expression) solveVisitor.doSwitch(expr);
 	}
@@ -88,4 +232,137 @@ public class ExpressionHelper {
 		ExpressionToPDFWrapper expToPDF = ExpressionToPDFWrapper.createExpressionToPDFWrapper(variable.getExpression());
 		return expToPDF.getMeanValue();
 	}
+
+	/**
+	 * A cached expression and, once it has been solved, its inferred types,
+	 * the variables it references and its solved expressions.
+	 */
+	private static class ParsedExpression {
+		private final Expression expression;
+		private HashMap<Expression, TypeEnum> typeAnnotation;
+		/** The referenced variables, their symbols and types. */
+		private List<CharacterisedVariable> variables;
+		private List<String> variableSymbols;
+		private List<VariableCharacterisationType> variableTypes;
+		/** By the characterisations of the referenced variables. */
+		private final Map<String, Expression> solvedExpressions = new LinkedHashMap<String, Expression>(
+				SOLVED_CACHE_SIZE, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Expression> eldest) {
+				return size() > SOLVED_CACHE_SIZE;
+			}
+		};
+
+		ParsedExpression(Expression expression) {
+			this.expression = expression;
+		}
+
+		/**
+		 * @param ctxWrp
+		 * @return the characterisations of the referenced variables in the
+		 *         computed usage context of the context wrapper, or null if
+		 *         one of them is missing.
+		 */
+		String getBinding(ContextWrapper ctxWrp) {
+			List<String> symbols;
+			List<VariableCharacterisationType> types;
+			synchronized (this) {
+				if (variableSymbols == null) {
+					findVariables();
+				}
+				symbols = variableSymbols;
+				types = variableTypes;
+			}
+			if (symbols.isEmpty()) {
+				return "";
+			}
+			if (ctxWrp.getCompUsgCtx() == null) {
+				return null;
+			}
+			UsageContextParameters parameters = UsageContextParameters.get(ctxWrp.getCompUsgCtx());
+			StringBuilder binding = new StringBuilder();
+			for (int i = 0; i < symbols.size(); i++) {
+				Map<VariableCharacterisationType, String> characterisations = parameters
+						.getCharacterisations(symbols.get(i));
+				String specification = characterisations == null ? null : characterisations.get(types.get(i));
+				if (specification == null) {
+					return null;
+				}
+				binding.append(specification).append('\u0000');
+			}
+			return binding.toString();
+		}
+
+		synchronized Expression getSolvedExpression(String binding) {
+			Expression solvedExpression = solvedExpressions.get(binding);
+			return solvedExpression == null ? null : EcoreUtil.copy(solvedExpression);
+		}
+
+		synchronized void putSolvedExpression(String binding, Expression solvedExpression) {
+			solvedExpressions.put(binding, EcoreUtil.copy(solvedExpression));
+		}
+
+		/**
+		 * @param copier
+		 *            the copier that created a copy of the expression.
+		 * @return the symbols of the variables of the copy.
+		 */
+		synchronized Map<Variable, String> getVariableSymbols(Copier copier) {
+			if (variableSymbols == null) {
+				findVariables();
+			}
+			Map<Variable, String> copiedSymbols = new HashMap<Variable, String>();
+			for (int i = 0; i < variables.size(); i++) {
+				Variable copy = (Variable) copier.get(variables.get(i));
+				if (copy != null) {
+					copiedSymbols.put(copy, variableSymbols.get(i));
+				}
+			}
+			return copiedSymbols;
+		}
+
+		private void findVariables() {
+			List<CharacterisedVariable> variables = new ArrayList<CharacterisedVariable>();
+			List<String> symbols = new ArrayList<String>();
+			List<VariableCharacterisationType> types = new ArrayList<VariableCharacterisationType>();
+			List<EObject> nodes = new ArrayList<EObject>();
+			nodes.add(expression);
+			for (Iterator<EObject> contents = expression.eAllContents(); contents.hasNext();) {
+				nodes.add(contents.next());
+			}
+			for (EObject node : nodes) {
+				if (node instanceof CharacterisedVariable) {
+					CharacterisedVariable variable = (CharacterisedVariable) node;
+					variables.add(variable);
+					symbols.add(ParameterNames.getSymbol(variable.getId_Variable()));
+					types.add(variable.getCharacterisationType());
+				}
+			}
+			this.variables = variables;
+			variableSymbols = symbols;
+			variableTypes = types;
+		}
+
+		/**
+		 * @param copier
+		 *            the copier that created a copy of the expression.
+		 * @return the types of the nodes of the copy. The types are inferred
+		 *         on first use.
+		 */
+		synchronized HashMap<Expression, TypeEnum> getTypeAnnotation(Copier copier) {
+			if (typeAnnotation == null) {
+				typeAnnotation = ExpressionHelper.getTypeAnnotation(expression);
+			}
+			HashMap<Expression, TypeEnum> copiedTypeAnnotation = new HashMap<Expression, TypeEnum>();
+			for (Map.Entry<Expression, TypeEnum> entry : typeAnnotation.entrySet()) {
+				Expression copy = (Expression) copier.get(entry.getKey());
+				if (copy != null) {
+					copiedTypeAnnotation.put(copy, entry.getValue());
+				}
+			}
+			return copiedTypeAnnotation;
+		}
+	}
 }
@@ -1,21 +1,18 @@
 package de.uka.ipd.sdq.pcmsolver.visitors;
 
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.log4j.Logger;
-import org.eclipse.emf.common.util.BasicEList;
-import org.eclipse.emf.common.util.EList;
 import org.palladiosimulator.pcm.parameter.CharacterisedVariable;
-import org.palladiosimulator.pcm.parameter.VariableCharacterisation;
-import org.palladiosimulator.pcm.parameter.VariableUsage;
-import org.palladiosimulator.solver.context.computed_usage.ExternalCallOutput;
-import org.palladiosimulator.solver.context.computed_usage.Input;
+import org.palladiosimulator.pcm.parameter.VariableCharacterisationType;
 
 import de.uka.ipd.sdq.pcmsolver.transformations.ContextWrapper;
-import de.uka.ipd.sdq.stoex.AbstractNamedReference;
+import de.uka.ipd.sdq.pcmsolver.transformations.ParameterNames;
+import de.uka.ipd.sdq.pcmsolver.transformations.UsageContextParameters;
 import de.uka.ipd.sdq.stoex.Expression;
-import de.uka.ipd.sdq.stoex.NamespaceReference;
 import de.uka.ipd.sdq.stoex.Variable;
 import de.uka.ipd.sdq.stoex.analyser.visitors.ExpressionSolveVisitor;
 import de.uka.ipd.sdq.stoex.analyser.visitors.TypeEnum;
@@ -28,9 +25,26 @@ public class ExpressionParameterSolverVisitor extends ExpressionSolveVisitor {
 	//private Context context;
 	private ContextWrapper contextWrapper;
 	
+	/** The symbols of the variables, as far as they are known beforehand. */
+	private Map<Variable, String> variableSymbols;
+	
 	public ExpressionParameterSolverVisitor(HashMap<Expression, TypeEnum> typeAnn, ContextWrapper ctxWrp){
+		this(typeAnn, Collections.<Variable, String> emptyMap(), ctxWrp);
+	}
+	
+	/**
+	 * @param typeAnn
+	 * @param variableSymbols
+	 *            the symbols of the variables of the expression, see
+	 *            {@link ParameterNames}. The symbols of other variables are
+	 *            determined while solving.
+	 * @param ctxWrp
+	 */
+	public ExpressionParameterSolverVisitor(HashMap<Expression, TypeEnum> typeAnn,
+			Map<Variable, String> variableSymbols, ContextWrapper ctxWrp){
 		super(typeAnn);
 		this.contextWrapper = ctxWrp;
+		this.variableSymbols = variableSymbols;
 	}
 
 	/* (non-Javadoc)
@@ -38,60 +52,26 @@ public class ExpressionParameterSolverVisitor extends ExpressionSolveVisitor {
 	 *
 	 * Solves a parametric dependency. For a given variable, it tries to 
 	 * determine it's actual specification (e.g. probability distribution or
-	 * constant) by looking it up in the usage context.
+	 * constant) by looking it up in the usage context. Both input parameters 
+	 * specified in the interface and component parameters are considered, 
+	 * followed by the outputs of external calls, see {@link UsageContextParameters}.
 	 */
 	@Override
 	public Object caseVariable(Variable var){
-		AbstractNamedReference anr = var.getId_Variable();
 		CharacterisedVariable chVar = (CharacterisedVariable)var;
-		
-		//Contains both input parameters specified in the interface and component parameters. 
-		EList<VariableUsage> vuList = new BasicEList<VariableUsage>();
-		Input input = contextWrapper.getCompUsgCtx().getInput_ComputedUsageContext();
-		if (input !=null){
-			vuList.addAll(input.getParameterChacterisations_Input());
-		}
-		
-		EList<ExternalCallOutput> ecoList = contextWrapper.getCompUsgCtx().getExternalCallOutput_ComputedUsageContext();
-		for (ExternalCallOutput eco : ecoList){
-			// TODO: recognise scopes
-			EList<VariableUsage> vuList2 = eco.getParameterCharacterisations_ExternalCallOutput();
-			vuList.addAll(vuList2); 
+		String soughtParameterName = variableSymbols.get(var);
+		if (soughtParameterName == null) {
+			soughtParameterName = ParameterNames.getSymbol(var.getId_Variable());
 		}
 		
-		String soughtParameterName = getFullParameterName(anr);
-		for (VariableUsage vu : vuList){ 
-			AbstractNamedReference ref = vu.getNamedReference__VariableUsage();
-			String currentParameterName = getFullParameterName(ref);
-
-			if (currentParameterName.equals(soughtParameterName)){
-				EList<VariableCharacterisation> varCharList = vu.getVariableCharacterisation_VariableUsage();
-
-				for (VariableCharacterisation vc : varCharList){ // iterate over a parameter's characterisations
-					if (vc.getType() == chVar.getCharacterisationType()){
-						String specification = vc.getSpecification_VariableCharacterisation().getSpecification();
-						Expression expr = ExpressionHelper.parseToExpression(specification);
-						return expr;
-					}
-				}
-				throw new RuntimeException("Variable Characterisation missing in Usage Context ("+soughtParameterName+")!");
-			}
-		}
-		throw new RuntimeException("Variable Characterisation missing in Usage Context ("+soughtParameterName+")!");
-	}
-
-	/**
-	 * @param currentParameterName
-	 * @param ref
-	 * @return
-	 */
-	private String getFullParameterName(AbstractNamedReference ref) {
-		String name = ""; 
-		while (ref instanceof NamespaceReference){
-			NamespaceReference nsRef = (NamespaceReference)ref;
-			name += nsRef.getReferenceName() + ".";
-			ref = nsRef.getInnerReference_NamespaceReference();
+		Map<VariableCharacterisationType, String> varChars = UsageContextParameters
+				.get(contextWrapper.getCompUsgCtx())
+				.getCharacterisations(soughtParameterName);
+		String specification = varChars == null ? null : varChars.get(chVar.getCharacterisationType());
+		if (specification == null){
+			throw new RuntimeException("Variable Characterisation missing in Usage Context ("+soughtParameterName+")!");
 		}
-		return name += ref.getReferenceName();
+		Expression expr = ExpressionHelper.parseToExpression(specification);
+		return expr;
 	}
 }
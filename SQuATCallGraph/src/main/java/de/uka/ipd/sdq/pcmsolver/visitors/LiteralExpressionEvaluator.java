@@ -0,0 +1,205 @@
+package de.uka.ipd.sdq.pcmsolver.visitors;
+
+import de.uka.ipd.sdq.stoex.DoubleLiteral;
+import de.uka.ipd.sdq.stoex.Expression;
+import de.uka.ipd.sdq.stoex.IntLiteral;
+import de.uka.ipd.sdq.stoex.StoexFactory;
+
+/**
+ * Evaluates specifications that only consist of numeric literals, the
+ * operators +, -, *, / and % and parentheses, e.g., "1000" or the resource
+ * demands divided by the processing rate, "(0.5) / ((1000)*1.0)". Such
+ * specifications are evaluated directly, without the StoEx parser.
+ * 
+ * The arithmetic follows the solving of the StoEx: an operation on two
+ * integers yields an integer, e.g., "(4) / 20" yields 0, as soon as a double
+ * is involved the result is a double. Everything else, e.g., variables,
+ * probability functions or an overflow, is left to the StoEx, then the
+ * specification is not evaluated and null is returned.
+ */
+public class LiteralExpressionEvaluator {
+
+	private final String specification;
+	private int position = 0;
+
+	private LiteralExpressionEvaluator(String specification) {
+		this.specification = specification;
+	}
+
+	/**
+	 * @param specification
+	 * @return the value of the specification as {@link IntLiteral} or
+	 *         {@link DoubleLiteral}, or null if it is not a constant
+	 *         arithmetic expression.
+	 */
+	public static Expression evaluate(String specification) {
+		Number value = evaluateToNumber(specification);
+		if (value instanceof Integer) {
+			IntLiteral literal = StoexFactory.eINSTANCE.createIntLiteral();
+			literal.setValue((Integer) value);
+			return literal;
+		} else if (value instanceof Double) {
+			DoubleLiteral literal = StoexFactory.eINSTANCE.createDoubleLiteral();
+			literal.setValue((Double) value);
+			return literal;
+		}
+		return null;
+	}
+
+	/**
+	 * @param specification
+	 * @return the value of the specification as {@link Integer} or
+	 *         {@link Double}, or null if it is not a constant arithmetic
+	 *         expression.
+	 */
+	public static Number evaluateToNumber(String specification) {
+		if (specification == null) {
+			return null;
+		}
+		LiteralExpressionEvaluator evaluator = new LiteralExpressionEvaluator(specification);
+		Number value = evaluator.parseSum();
+		if (value == null || evaluator.peek() != 0) {
+			return null;
+		}
+		return value;
+	}
+
+	private Number parseSum() {
+		Number value = parseProduct();
+		while (value != null) {
+			char operator = peek();
+			if (operator != '+' && operator != '-') {
+				break;
+			}
+			position++;
+			value = apply(operator, value, parseProduct());
+		}
+		return value;
+	}
+
+	private Number parseProduct() {
+		Number value = parseUnary();
+		while (value != null) {
+			char operator = peek();
+			if (operator != '*' && operator != '/' && operator != '%') {
+				break;
+			}
+			position++;
+			value = apply(operator, value, parseUnary());
+		}
+		return value;
+	}
+
+	private Number parseUnary() {
+		if (peek() == '-') {
+			position++;
+			Number value = parseUnary();
+			if (value instanceof Integer) {
+				return (Integer) value == Integer.MIN_VALUE ? null : -(Integer) value;
+			}
+			return value == null ? null : (Number) (-value.doubleValue());
+		}
+		return parsePrimary();
+	}
+
+	private Number parsePrimary() {
+		char next = peek();
+		if (next == '(') {
+			position++;
+			Number value = parseSum();
+			if (value == null || peek() != ')') {
+				return null;
+			}
+			position++;
+			return value;
+		}
+		if (!Character.isDigit(next)) {
+			return null;
+		}
+		int start = position;
+		skipDigits();
+		boolean isDouble = false;
+		if (position < specification.length() && specification.charAt(position) == '.') {
+			position++;
+			if (position >= specification.length() || !Character.isDigit(specification.charAt(position))) {
+				return null;
+			}
+			skipDigits();
+			isDouble = true;
+		}
+		if (position < specification.length() && Character.isLetter(specification.charAt(position))) {
+			// e.g., an exponent or an identifier starting with a digit
+			return null;
+		}
+		String literal = specification.substring(start, position);
+		try {
+			return isDouble ? (Number) Double.parseDouble(literal) : (Number) Integer.parseInt(literal);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private static Number apply(char operator, Number left, Number right) {
+		if (right == null) {
+			return null;
+		}
+		if (left instanceof Integer && right instanceof Integer) {
+			int l = (Integer) left;
+			int r = (Integer) right;
+			try {
+				switch (operator) {
+				case '+':
+					return Math.addExact(l, r);
+				case '-':
+					return Math.subtractExact(l, r);
+				case '*':
+					return Math.multiplyExact(l, r);
+				case '/':
+					return r == 0 ? null : (Number) (l / r);
+				default:
+					return r == 0 ? null : (Number) (l % r);
+				}
+			} catch (ArithmeticException e) {
+				return null;
+			}
+		}
+		double l = left.doubleValue();
+		double r = right.doubleValue();
+		double result;
+		switch (operator) {
+		case '+':
+			result = l + r;
+			break;
+		case '-':
+			result = l - r;
+			break;
+		case '*':
+			result = l * r;
+			break;
+		case '/':
+			result = l / r;
+			break;
+		default:
+			// the modulo of doubles is left to the StoEx
+			return null;
+		}
+		return Double.isInfinite(result) || Double.isNaN(result) ? null : (Number) result;
+	}
+
+	private void skipDigits() {
+		while (position < specification.length() && Character.isDigit(specification.charAt(position))) {
+			position++;
+		}
+	}
+
+	/**
+	 * @return the next character that is not a blank, or 0 at the end of the
+	 *         specification.
+	 */
+	private char peek() {
+		while (position < specification.length() && Character.isWhitespace(specification.charAt(position))) {
+			position++;
+		}
+		return position < specification.length() ? specification.charAt(position) : 0;
+	}
+}
@@ -0,0 +1,208 @@
+package de.uka.ipd.sdq.pcmsolver.visitors;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil.Copier;
+import org.palladiosimulator.solver.context.computed_allocation.ComputedAllocationContext;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsageContext;
+
+import de.uka.ipd.sdq.pcmsolver.models.PCMInstance;
+import de.uka.ipd.sdq.pcmsolver.transformations.ComputedContextMerge;
+import de.uka.ipd.sdq.pcmsolver.transformations.ContextWrapper;
+import de.uka.ipd.sdq.pcmsolver.transformations.SolvedResourceDemand;
+
+/**
+ * Traverses several SEFFs concurrently, e.g., the SEFFs of all replicas of a
+ * component or the forked behaviours of a fork action. Each traversal works on its own fork of the {@link PCMInstance}
+ * and on its own copies of the computed usage and computed allocation context
+ * of its {@link ContextWrapper}, as the replicas of a component share their
+ * computed usage context. When all traversals are finished, their results are
+ * merged back in the order of the given context wrappers, like after a
+ * sequential traversal (see {@link ComputedContextMerge} and
+ * {@link PCMInstance#join(PCMInstance)}). The call graph is shared by the
+ * traversals.
+ *
+ * If a traversal fails, the others still run to the end and their results are
+ * merged, then the exception of the first failed traversal is thrown. The
+ * context wrappers are restored in any case.
+ *
+ * Traversals are only run concurrently if
+ * {@link PCMInstance#isParallelTraversal()} is set and there is more than one
+ * context wrapper, otherwise they run one after the other on the calling
+ * thread.
+ */
+public class ParallelTraversal {
+
+	/**
+	 * A traversal starting at the given context wrapper.
+	 */
+	public interface Traversal<T> {
+		T traverse(ContextWrapper contextWrapper);
+	}
+
+	/**
+	 * Runs the traversal for each context wrapper.
+	 *
+	 * @param contextWrappers
+	 * @param traversal
+	 * @return the results of the traversals, in the order of the context
+	 *         wrappers.
+	 */
+	public static <T> List<T> traverse(List<ContextWrapper> contextWrappers, final Traversal<T> traversal) {
+		List<T> results = new ArrayList<T>();
+		if (!isEnabled(contextWrappers.isEmpty() ? null : contextWrappers.get(0), contextWrappers.size())) {
+			for (ContextWrapper contextWrapper : contextWrappers) {
+				results.add(traversal.traverse(contextWrapper));
+			}
+			return results;
+		}
+
+		List<IsolatedContext> isolatedContexts = new ArrayList<IsolatedContext>();
+		final List<ForkJoinTask<T>> tasks = new ArrayList<ForkJoinTask<T>>();
+		try {
+			for (final ContextWrapper contextWrapper : contextWrappers) {
+				isolatedContexts.add(new IsolatedContext(contextWrapper));
+				tasks.add(ForkJoinTask.adapt(new Callable<T>() {
+					@Override
+					public T call() {
+						return traversal.traverse(contextWrapper);
+					}
+				}));
+			}
+			invokeAll(tasks);
+		} finally {
+			for (IsolatedContext isolatedContext : isolatedContexts) {
+				isolatedContext.restore();
+			}
+		}
+		for (int i = 0; i < tasks.size(); i++) {
+			if (tasks.get(i).isCompletedNormally()) {
+				isolatedContexts.get(i).merge();
+			}
+		}
+		for (ForkJoinTask<T> task : tasks) {
+			results.add(task.join());
+		}
+		return results;
+	}
+
+	/**
+	 * @param contextWrapper
+	 *            the context the traversals start in.
+	 * @param traversals
+	 *            the number of traversals.
+	 * @return true if the traversals are run concurrently.
+	 */
+	public static boolean isEnabled(ContextWrapper contextWrapper, int traversals) {
+		return traversals > 1 && contextWrapper.getPcmInstance().isParallelTraversal();
+	}
+
+	/**
+	 * Runs all tasks to the end, even if one of them fails. Nested traversals
+	 * are run in the pool of the enclosing one.
+	 */
+	private static <T> void invokeAll(final List<ForkJoinTask<T>> tasks) {
+		if (ForkJoinTask.inForkJoinPool()) {
+			invokeQuietly(tasks);
+		} else {
+			ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() {
+					invokeQuietly(tasks);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Unlike {@link ForkJoinTask#invokeAll(java.util.Collection)}, does not
+	 * cancel the other tasks if one fails, so no task is still running when
+	 * this returns.
+	 */
+	private static <T> void invokeQuietly(List<ForkJoinTask<T>> tasks) {
+		for (int i = tasks.size() - 1; i > 0; i--) {
+			tasks.get(i).fork();
+		}
+		tasks.get(0).quietlyInvoke();
+		for (int i = 1; i < tasks.size(); i++) {
+			tasks.get(i).quietlyJoin();
+		}
+	}
+
+	/**
+	 * Replaces the computed contexts and the {@link PCMInstance} of a context
+	 * wrapper by copies and merges the copies back afterwards.
+	 */
+	private static class IsolatedContext {
+		private final ContextWrapper contextWrapper;
+		private final PCMInstance instance;
+		private final PCMInstance fork;
+		private final ComputedUsageContext compUsgCtx;
+		private final ComputedAllocationContext compAllCtx;
+		private final List<EObject> originals = new ArrayList<EObject>();
+		private final List<EObject> copies = new ArrayList<EObject>();
+		/** The original of each copied object, by copy. */
+		private final Map<EObject, EObject> originalsByCopy = new HashMap<EObject, EObject>();
+
+		IsolatedContext(ContextWrapper contextWrapper) {
+			this.contextWrapper = contextWrapper;
+			this.instance = contextWrapper.getPcmInstance();
+			this.fork = instance.fork();
+			this.compUsgCtx = contextWrapper.getCompUsgCtx();
+			this.compAllCtx = contextWrapper.getCompAllCtx();
+
+			Copier copier = new Copier();
+			for (EObject original : new EObject[] { compUsgCtx, compAllCtx }) {
+				if (original != null) {
+					originals.add(original);
+					copies.add(copier.copy(original));
+				}
+			}
+			// the copied allocation context references the copied usage context
+			copier.copyReferences();
+			SolvedResourceDemand.copyAdapters(copier);
+			for (Map.Entry<EObject, EObject> entry : copier.entrySet()) {
+				originalsByCopy.put(entry.getValue(), entry.getKey());
+			}
+
+			contextWrapper.setCompUsgCtx((ComputedUsageContext) copier.get(compUsgCtx));
+			contextWrapper.setCompAllCtx((ComputedAllocationContext) copier.get(compAllCtx));
+			contextWrapper.setPcmInstance(fork);
+		}
+
+		/**
+		 * Sets the original contexts and instance at the context wrapper
+		 * again.
+		 */
+		void restore() {
+			contextWrapper.setCompUsgCtx(compUsgCtx);
+			contextWrapper.setCompAllCtx(compAllCtx);
+			contextWrapper.setPcmInstance(instance);
+		}
+
+		/**
+		 * Adds what the traversal added to the copies to the original
+		 * contexts and joins the fork. The copies stay unchanged, as the
+		 * visitors of the traversal may still refer to them.
+		 */
+		void merge() {
+			for (int i = 0; i < originals.size(); i++) {
+				Copier copier = new Copier();
+				ComputedContextMerge.addContents(originals.get(i), copies.get(i), originalsByCopy, copier);
+				copier.copyReferences();
+				SolvedResourceDemand.copyAdapters(copier);
+			}
+			instance.join(fork);
+		}
+	}
+}
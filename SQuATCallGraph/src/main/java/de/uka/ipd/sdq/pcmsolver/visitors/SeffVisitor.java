@@ -218,13 +218,18 @@ public class SeffVisitor extends SeffSwitch {
 		String interfaceName = action.getRole_ExternalService().getRequiredInterface__OperationRequiredRole()
 				.getEntityName();
 		String interfaceId = action.getRole_ExternalService().getRequiredInterface__OperationRequiredRole().getId();
-		String componentName = seff.getBasicComponent_ServiceEffectSpecification().getEntityName();
-		String componentId = seff.getBasicComponent_ServiceEffectSpecification().getId();
 
-		CallEntity startCallEntity = this.callEntity;
-		CallEntity targetCallEntity = callGraph.getEntity(componentName, componentId, methodName, methodId,
-				interfaceName, interfaceId);
-		callGraph.addLink(startCallEntity, targetCallEntity);
+		// system external calls have no SEFF, so there is no component to link to
+		CallEntity targetCallEntity = null;
+		if (seff != null) {
+			String componentName = seff.getBasicComponent_ServiceEffectSpecification().getEntityName();
+			String componentId = seff.getBasicComponent_ServiceEffectSpecification().getId();
+
+			CallEntity startCallEntity = this.callEntity;
+			targetCallEntity = callGraph.getEntity(componentName, componentId, methodName, methodId, interfaceName,
+					interfaceId);
+			callGraph.addLink(startCallEntity, targetCallEntity);
+		}
 
 		externalCallHandler.handle(action, targetCallEntity);
 		doSwitch(action.getSuccessor_AbstractAction());
@@ -433,6 +438,17 @@ public class SeffVisitor extends SeffSwitch {
 		contextWrapper = wrapper;
 	}
 
+	public CallGraph getCallGraph() {
+		return callGraph;
+	}
+
+	/**
+	 * @return the call graph entity of the visited SEFF.
+	 */
+	public CallEntity getCallEntity() {
+		return callEntity;
+	}
+
 	/**
 	 * Searches for a StartAction within the chain of AbstractActions of the
 	 * behaviour and returns it.
@@ -1,6 +1,9 @@
 package de.uka.ipd.sdq.pcmsolver.visitors;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.EList;
@@ -17,6 +20,7 @@ import org.palladiosimulator.pcm.usagemodel.Loop;
 import org.palladiosimulator.pcm.usagemodel.ScenarioBehaviour;
 import org.palladiosimulator.pcm.usagemodel.Start;
 import org.palladiosimulator.pcm.usagemodel.Stop;
+import org.palladiosimulator.pcm.usagemodel.UsageScenario;
 import org.palladiosimulator.pcm.usagemodel.util.UsagemodelSwitch;
 import org.palladiosimulator.solver.context.computed_allocation.ComputedAllocationFactory;
 import org.palladiosimulator.solver.context.computed_usage.ComputedUsageFactory;
@@ -25,6 +29,7 @@ import de.uka.ipd.sdq.pcmsolver.models.PCMInstance;
 import de.uka.ipd.sdq.pcmsolver.transformations.ContextWrapper;
 import io.github.squat_team.callgraph.data.CallEntity;
 import io.github.squat_team.callgraph.data.CallGraph;
+import io.github.squat_team.callgraph.data.CallGraphListener;
 import io.github.squat_team.callgraph.data.CallGraphManager;
 
 /**
@@ -44,6 +49,15 @@ public class UsageModelVisitor extends UsagemodelSwitch {
 	
 	private CallGraphManager callGraphManager;
 
+	private CallGraphListener callGraphListener = null;
+
+	private boolean parallelSolving = false;
+
+	/** Set while the behaviour of a usage scenario is visited in parallel mode. */
+	private boolean collectingCalls = false;
+
+	private List<EntryLevelSystemCallTask> pendingCalls = new ArrayList<EntryLevelSystemCallTask>();
+
 	protected ContextWrapper myContextWrapper = null;
 
 	/**
@@ -62,6 +76,62 @@ public class UsageModelVisitor extends UsagemodelSwitch {
 		callGraphManager = new CallGraphManager();
 	}
 
+	/**
+	 * Solves dependencies for this {@link PCMInstance} in streaming mode. The
+	 * {@link CallGraph} of each {@link EntryLevelSystemCall} is handed to the
+	 * listener as soon as the call is solved. Afterwards, the graph is removed
+	 * from the {@link CallGraphManager} and the computed contexts of the
+	 * {@link PCMInstance} are reset, so the memory required does not grow with
+	 * the number of calls.
+	 * 
+	 * @param inst
+	 *            an instance of the Palladio Component Metamodel
+	 * @param listener
+	 *            receives the finished call graphs
+	 */
+	public UsageModelVisitor(PCMInstance inst, CallGraphListener listener) {
+		this(inst);
+		callGraphListener = listener;
+	}
+
+	/**
+	 * Specify whether the {@link EntryLevelSystemCall}s should be solved in
+	 * parallel. The calls are then collected while visiting a
+	 * {@link UsageScenario} and solved as fork/join tasks afterwards, each on
+	 * its own fork of the {@link PCMInstance}. The {@link CallGraph}s are still
+	 * created in the order of the visit, so the {@link CallGraphManager} has
+	 * the same contents as after a sequential run. Only applies if the
+	 * {@link UsageScenario} itself is visited and not in streaming mode;
+	 * calls visited on their own, e.g., by visiting a
+	 * {@link ScenarioBehaviour} directly, are solved sequentially. Subclasses
+	 * that set {@link #myContextWrapper} are solved sequentially as well, as
+	 * the wrapper is not meant to be used by several tasks.
+	 * 
+	 * @param parallelSolving
+	 *            true to solve the calls in parallel.
+	 */
+	public void setParallelSolving(boolean parallelSolving) {
+		this.parallelSolving = parallelSolving && callGraphListener == null;
+	}
+
+	/**
+	 * Visits the behaviour of the usage scenario. The call graphs generated
+	 * meanwhile are tagged with the usage scenario.
+	 */
+	@Override
+	public Object caseUsageScenario(UsageScenario object) {
+		logger.debug("VisitUsageScenario");
+		callGraphManager.setUsageScenario(object.getEntityName(), object.getId());
+		collectingCalls = parallelSolving && myContextWrapper == null;
+		try {
+			doSwitch(object.getScenarioBehaviour_UsageScenario());
+		} finally {
+			collectingCalls = false;
+		}
+		solvePendingCalls();
+		return object;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -132,38 +202,13 @@ public class UsageModelVisitor extends UsagemodelSwitch {
 		logger.debug("VisitEntryLevelSystemCall");
 		logger.debug("Called System Method " + elscName);
 
-		// Get List of ContextWrappers, one for each called component instance
-		List<ContextWrapper> contextWrapperList;
-		if (myContextWrapper == null)
-			contextWrapperList = ContextWrapper.getContextWrapperFor(elsc, pcmInstance);
-		else
-			contextWrapperList = myContextWrapper.getContextWrapperFor(elsc);
-
-		for (ContextWrapper contextWrapper : contextWrapperList) {
-			ServiceEffectSpecification seff = contextWrapper.getNextSEFF(elsc);
-			OperationSignature signature = elsc.getOperationSignature__EntryLevelSystemCall();
-			String methodName = signature.getEntityName();
-			String methodId = signature.getId();
-			String interfaceName = elsc.getProvidedRole_EntryLevelSystemCall()
-					.getProvidedInterface__OperationProvidedRole().getEntityName();
-			String interfaceId = elsc.getProvidedRole_EntryLevelSystemCall()
-					.getProvidedInterface__OperationProvidedRole().getId();
-			String componentName = seff.getBasicComponent_ServiceEffectSpecification().getEntityName();
-			String componentId = seff.getBasicComponent_ServiceEffectSpecification().getId();
-
-			CallEntity startCallEntity = callGraph.getStartEntity();
-			CallEntity targetCallEntity = callGraph.getEntity(componentName, componentId, methodName, methodId,
-					interfaceName, interfaceId);
-			callGraph.addLink(startCallEntity, targetCallEntity);
-
-			SeffVisitor visitor = new SeffVisitor(seff, contextWrapper, callGraph, targetCallEntity);
-			// try {
-			visitor.doSwitch((ResourceDemandingSEFF) seff);
-			/*
-			 * } catch (Exception e) { logger.error(
-			 * "Error while visiting RDSEFF"); e.printStackTrace(); }
-			 */
-
+		if (collectingCalls) {
+			pendingCalls.add(new EntryLevelSystemCallTask(elsc, callGraph, pcmInstance.fork()));
+		} else {
+			solveEntryLevelSystemCall(elsc, callGraph, pcmInstance);
+			if (callGraphListener != null) {
+				finishCallGraph(callGraph);
+			}
 		}
 
 		// XXX: The internal myContextWrapper is not affected by the handling of
@@ -176,6 +221,87 @@ public class UsageModelVisitor extends UsagemodelSwitch {
 		return elsc;
 	}
 
+	/**
+	 * Visits the SEFFs of all component instances called by the
+	 * {@link EntryLevelSystemCall}. The instances are visited concurrently if
+	 * {@link PCMInstance#isParallelTraversal()} is set, see
+	 * {@link ParallelTraversal}.
+	 * 
+	 * @param elsc
+	 * @param callGraph
+	 *            the call graph of the call
+	 * @param instance
+	 *            the instance holding the computed contexts
+	 */
+	private void solveEntryLevelSystemCall(final EntryLevelSystemCall elsc, final CallGraph callGraph,
+			PCMInstance instance) {
+		// Get List of ContextWrappers, one for each called component instance
+		List<ContextWrapper> contextWrapperList;
+		if (myContextWrapper == null)
+			contextWrapperList = ContextWrapper.getContextWrapperFor(elsc, instance);
+		else
+			contextWrapperList = myContextWrapper.getContextWrapperFor(elsc);
+
+		ParallelTraversal.traverse(contextWrapperList, new ParallelTraversal.Traversal<SeffVisitor>() {
+			@Override
+			public SeffVisitor traverse(ContextWrapper contextWrapper) {
+				return visitSEFF(elsc, callGraph, contextWrapper);
+			}
+		});
+	}
+
+	/**
+	 * Visits the SEFF of a single component instance.
+	 */
+	private SeffVisitor visitSEFF(EntryLevelSystemCall elsc, CallGraph callGraph, ContextWrapper contextWrapper) {
+		ServiceEffectSpecification seff = contextWrapper.getNextSEFF(elsc);
+		OperationSignature signature = elsc.getOperationSignature__EntryLevelSystemCall();
+		String methodName = signature.getEntityName();
+		String methodId = signature.getId();
+		String interfaceName = elsc.getProvidedRole_EntryLevelSystemCall()
+				.getProvidedInterface__OperationProvidedRole().getEntityName();
+		String interfaceId = elsc.getProvidedRole_EntryLevelSystemCall()
+				.getProvidedInterface__OperationProvidedRole().getId();
+		String componentName = seff.getBasicComponent_ServiceEffectSpecification().getEntityName();
+		String componentId = seff.getBasicComponent_ServiceEffectSpecification().getId();
+
+		CallEntity startCallEntity = callGraph.getStartEntity();
+		CallEntity targetCallEntity = callGraph.getEntity(componentName, componentId, methodName, methodId,
+				interfaceName, interfaceId);
+		callGraph.addLink(startCallEntity, targetCallEntity);
+
+		SeffVisitor visitor = new SeffVisitor(seff, contextWrapper, callGraph, targetCallEntity);
+		// try {
+		visitor.doSwitch((ResourceDemandingSEFF) seff);
+		/*
+		 * } catch (Exception e) { logger.error(
+		 * "Error while visiting RDSEFF"); e.printStackTrace(); }
+		 */
+		return visitor;
+	}
+
+	/**
+	 * Solves the collected calls in parallel and adds their computed contexts
+	 * to the {@link PCMInstance} in the order of the visit.
+	 */
+	private void solvePendingCalls() {
+		if (pendingCalls.isEmpty()) {
+			return;
+		}
+		ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void compute() {
+				invokeAll(pendingCalls);
+			}
+		});
+		for (EntryLevelSystemCallTask task : pendingCalls) {
+			pcmInstance.join(task.instance);
+		}
+		pendingCalls.clear();
+	}
+
 	@Override
 	public Object caseDelay(Delay object) {
 		logger.debug("VisitDelay");
@@ -191,6 +317,17 @@ public class UsageModelVisitor extends UsagemodelSwitch {
 		return object;
 	}
 
+	/**
+	 * Hands the call graph downstream and discards everything computed for it.
+	 * 
+	 * @param callGraph
+	 */
+	private void finishCallGraph(CallGraph callGraph) {
+		callGraphManager.removeCallGraph(callGraph);
+		callGraphListener.callGraphFinished(callGraph);
+		pcmInstance.resetComputedContexts();
+	}
+
 	/**
 	 * @param object
 	 * @return
@@ -200,6 +337,29 @@ public class UsageModelVisitor extends UsagemodelSwitch {
 		return startAction;
 	}
 
+	/**
+	 * Solves a single {@link EntryLevelSystemCall} on its own fork of the
+	 * {@link PCMInstance}.
+	 */
+	private class EntryLevelSystemCallTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final EntryLevelSystemCall elsc;
+		private final CallGraph callGraph;
+		private final PCMInstance instance;
+
+		EntryLevelSystemCallTask(EntryLevelSystemCall elsc, CallGraph callGraph, PCMInstance instance) {
+			this.elsc = elsc;
+			this.callGraph = callGraph;
+			this.instance = instance;
+		}
+
+		@Override
+		protected void compute() {
+			solveEntryLevelSystemCall(elsc, callGraph, instance);
+		}
+	}
+
 	/**
 	 * Get the Call Graph Manager associated with this visitor run and all subordinated {@link SeffVisitor}s.
 	 * 
@@ -19,6 +19,7 @@ import org.palladiosimulator.solver.context.computed_usage.Input;
 import org.palladiosimulator.solver.context.computed_usage.Output;
 
 import de.uka.ipd.sdq.pcmsolver.transformations.ContextWrapper;
+import de.uka.ipd.sdq.pcmsolver.transformations.ParameterNames;
 import de.uka.ipd.sdq.stoex.AbstractNamedReference;
 import de.uka.ipd.sdq.stoex.NamespaceReference;
 import de.uka.ipd.sdq.stoex.StoexFactory;
@@ -250,12 +251,6 @@ public class VariableUsageHelper {
 	}
 
 	private static String getFullParameterName(AbstractNamedReference ref) {
-		String name = "";
-		while (ref instanceof NamespaceReference) {
-			NamespaceReference nsRef = (NamespaceReference) ref;
-			name += nsRef.getReferenceName() + ".";
-			ref = nsRef.getInnerReference_NamespaceReference();
-		}
-		return name += ref.getReferenceName();
+		return ParameterNames.getSymbol(ref);
 	}
 }
@@ -1,6 +1,13 @@
 package io.github.squat_team.callgraph;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.palladiosimulator.pcm.usagemodel.UsageScenario;
 
@@ -11,6 +18,7 @@ import io.github.squat_team.callgraph.config.CallGraphConfiguration;
 import io.github.squat_team.callgraph.config.DependencySolverConfiguration;
 import io.github.squat_team.callgraph.config.GraphVizConfiguration;
 import io.github.squat_team.callgraph.data.CallGraph;
+import io.github.squat_team.callgraph.data.CallGraphListener;
 import io.github.squat_team.callgraph.data.CallGraphManager;
 import io.github.squat_team.callgraph.export.CallGraphExporter;
 
@@ -34,7 +42,36 @@ public class CallGraphGenerator {
 	 */
 	public void generate() {
 		setupEclipseEnvironment();
-		CallGraphManager callGraphData = runDependencySolver(setupModel());
+		generate(setupModel());
+	}
+
+	/**
+	 * Runs the analysis in streaming mode. Each call graph is handed to the
+	 * listener as soon as it is finished and is not kept afterwards, so the
+	 * memory required does not grow with the number of external calls. No
+	 * result files are exported.
+	 * 
+	 * @param listener
+	 *            receives the call graphs one by one.
+	 */
+	public void generate(CallGraphListener listener) {
+		setupEclipseEnvironment();
+		PCMInstance model = setupModel();
+		UsageModelVisitor visitor = new UsageModelVisitor(model, listener);
+		for (UsageScenario us : model.getUsageModel().getUsageScenario_UsageModel()) {
+			visitor.doSwitch(us);
+		}
+	}
+
+	/**
+	 * Runs the analysis on an already loaded model and exports the result
+	 * files. The eclipse environment has to be set up already.
+	 * 
+	 * @param model
+	 *            the model specified in the configuration.
+	 */
+	void generate(PCMInstance model) {
+		CallGraphManager callGraphData = runDependencySolver(model);
 		outputDataDebugInformation(callGraphData);
 		exportResults(callGraphData);
 	}
@@ -44,20 +81,89 @@ public class CallGraphGenerator {
 	}
 
 	private PCMInstance setupModel() {
+		return new PCMInstance(createModelProperties());
+	}
+
+	Properties createModelProperties() {
 		DependencySolverConfiguration dsConfig = configuration.getDependencySolverConfiguration();
 		Properties properties = new Properties();
 		properties.put("Filename_UsageModel", dsConfig.getUsageModelPath());
 		properties.put("Filename_AllocationModel", dsConfig.getAllocationModelPath());
-		return new PCMInstance(properties);
+		properties.put("Parallel_Loading", String.valueOf(dsConfig.isParallelModelLoading()));
+		properties.put("Parallel_Traversal", String.valueOf(dsConfig.isParallelTraversal()));
+		if (dsConfig.getModelCachePath() != null) {
+			properties.put("Model_Cache_Path", dsConfig.getModelCachePath());
+		}
+		return properties;
 	}
 
 	private CallGraphManager runDependencySolver(PCMInstance model) {
-		UsageModelVisitor visitor = new UsageModelVisitor(model);
-		UsageScenario us = (UsageScenario) model.getUsageModel().getUsageScenario_UsageModel().get(0);
-		visitor.doSwitch(us.getScenarioBehaviour_UsageScenario());
+		List<UsageScenario> usageScenarios = model.getUsageModel().getUsageScenario_UsageModel();
+		if (usageScenarios.size() > 1) {
+			return runDependencySolverConcurrently(model, usageScenarios);
+		}
+		UsageModelVisitor visitor = createUsageModelVisitor(model);
+		for (UsageScenario us : usageScenarios) {
+			visitor.doSwitch(us);
+		}
 		return visitor.getCallGraphManager();
 	}
 
+	/**
+	 * Solves each usage scenario on its own worker, with its own visitor and
+	 * its own fork of the model. The call graphs are merged in the order of
+	 * the usage scenarios in the model.
+	 */
+	private CallGraphManager runDependencySolverConcurrently(PCMInstance model, List<UsageScenario> usageScenarios) {
+		int threads = Math.min(usageScenarios.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<PCMInstance> forks = new ArrayList<PCMInstance>();
+			List<Future<CallGraphManager>> results = new ArrayList<Future<CallGraphManager>>();
+			for (final UsageScenario us : usageScenarios) {
+				final PCMInstance fork = model.fork();
+				forks.add(fork);
+				results.add(executor.submit(new Callable<CallGraphManager>() {
+					@Override
+					public CallGraphManager call() {
+						UsageModelVisitor visitor = createUsageModelVisitor(fork);
+						visitor.doSwitch(us);
+						return visitor.getCallGraphManager();
+					}
+				}));
+			}
+
+			CallGraphManager callGraphManager = new CallGraphManager();
+			for (int i = 0; i < results.size(); i++) {
+				callGraphManager.addCallGraphs(getResult(results.get(i)));
+				model.join(forks.get(i));
+			}
+			return callGraphManager;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private UsageModelVisitor createUsageModelVisitor(PCMInstance model) {
+		UsageModelVisitor visitor = new UsageModelVisitor(model);
+		visitor.setParallelSolving(configuration.getDependencySolverConfiguration().isParallelSolving());
+		return visitor;
+	}
+
+	private CallGraphManager getResult(Future<CallGraphManager> result) {
+		try {
+			return result.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while solving the usage scenarios.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
 	private void outputDataDebugInformation(CallGraphManager callGraphData) {
 		if (configuration.isDebugMode()) {
 			System.out.println("CALL GRAPHS: " + callGraphData.getCallGraphs().size());
@@ -0,0 +1,144 @@
+package io.github.squat_team.callgraph;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+
+import de.fakeller.palladio.environment.PalladioEclipseEnvironment;
+import de.uka.ipd.sdq.pcmsolver.models.BaseModelSet;
+import de.uka.ipd.sdq.pcmsolver.models.PCMInstance;
+import io.github.squat_team.callgraph.config.CallGraphConfiguration;
+
+/**
+ * Outer interface for running the call graph generation many times in the same
+ * VM, e.g., in an optimization loop. The eclipse environment is set up once
+ * per session. Shared model files (repositories and resource types by default,
+ * as well as the models Palladio provides itself) are loaded by the first run
+ * and become the {@link BaseModelSet} of all following runs, as long as the
+ * files do not change. Each run then only loads its usage model, allocation
+ * and the other models that are not shared.
+ *
+ * The runs of a session are executed one after the other. As the shared models
+ * are taken over from the first run, the models of that run must not be used
+ * anymore after it has finished.
+ */
+public class CallGraphSession {
+	private final static String[] DEFAULT_SHARED_EXTENSIONS = { "repository", "resourcetype" };
+	private final static String PATHMAP_SCHEME = "pathmap";
+
+	private static Logger logger = Logger.getLogger(CallGraphSession.class.getName());
+
+	private final Set<String> sharedExtensions;
+	private final Map<URI, String> sharedFileStates = new LinkedHashMap<URI, String>();
+	private BaseModelSet baseModelSet = null;
+
+	/**
+	 * Initializes a new session which shares repositories and resource types
+	 * between the runs.
+	 */
+	public CallGraphSession() {
+		this(DEFAULT_SHARED_EXTENSIONS);
+	}
+
+	/**
+	 * Initializes a new session.
+	 *
+	 * @param sharedExtensions
+	 *            the file extensions of the model files that are shared between
+	 *            the runs, e.g., repository. Shared models must not reference
+	 *            models that are not shared.
+	 */
+	public CallGraphSession(String... sharedExtensions) {
+		this.sharedExtensions = new HashSet<String>(Arrays.asList(sharedExtensions));
+		PalladioEclipseEnvironment.INSTANCE.setup();
+	}
+
+	/**
+	 * Runs the analysis and exports the result files to the location specified
+	 * in the configuration.
+	 *
+	 * @param configuration
+	 *            the configuration of this run.
+	 */
+	public synchronized void generate(CallGraphConfiguration configuration) {
+		CallGraphGenerator generator = new CallGraphGenerator(configuration);
+		if (baseModelSet != null && !isUpToDate()) {
+			clear();
+		}
+		if (baseModelSet != null) {
+			generator.generate(new PCMInstance(generator.createModelProperties(), baseModelSet));
+		} else {
+			PCMInstance model = new PCMInstance(generator.createModelProperties());
+			generator.generate(model);
+			baseModelSet = createBaseModelSet(model.getResourceSet());
+		}
+	}
+
+	/**
+	 * Removes all shared models, the next run loads all models again.
+	 */
+	public synchronized void clear() {
+		if (baseModelSet != null) {
+			for (Resource resource : baseModelSet.getResourceSet().getResources()) {
+				resource.unload();
+			}
+		}
+		baseModelSet = null;
+		sharedFileStates.clear();
+	}
+
+	/**
+	 * @return true if none of the shared model files has changed since it has
+	 *         been loaded.
+	 */
+	private boolean isUpToDate() {
+		for (Map.Entry<URI, String> entry : sharedFileStates.entrySet()) {
+			if (!entry.getValue().equals(getFileState(entry.getKey()))) {
+				logger.info("Shared model changed, reloading " + entry.getKey());
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Takes over the shared models of a finished run.
+	 */
+	private BaseModelSet createBaseModelSet(ResourceSet resourceSet) {
+		List<Resource> resources = new ArrayList<Resource>();
+		for (Resource resource : resourceSet.getResources()) {
+			URI uri = resource.getURI();
+			if (isShared(uri) && resource.isLoaded() && resource.getErrors().isEmpty()) {
+				resources.add(resource);
+				sharedFileStates.put(uri, getFileState(uri));
+			}
+		}
+		return new BaseModelSet(resources);
+	}
+
+	private boolean isShared(URI uri) {
+		return PATHMAP_SCHEME.equals(uri.scheme()) || sharedExtensions.contains(uri.fileExtension());
+	}
+
+	/**
+	 * Models that are not stored in the file system, like the ones provided by
+	 * Palladio, are assumed to never change.
+	 */
+	private static String getFileState(URI uri) {
+		if (!uri.isFile()) {
+			return "";
+		}
+		File file = new File(uri.toFileString());
+		return file.lastModified() + ":" + file.length();
+	}
+}
@@ -80,4 +80,55 @@ public class CallGraphConfiguration {
 		graphVizConfiguration.setDotPath(dotPath);
 	}
 
+	/**
+	 * Specify whether the model files should be loaded concurrently. The
+	 * referenced models are then parsed in parallel and proxies are only
+	 * resolved when they are needed by the analysis.
+	 * 
+	 * @param parallelModelLoading
+	 *            true to load the model files concurrently.
+	 */
+	public void setParallelModelLoading(boolean parallelModelLoading) {
+		dependencySolverConfiguration.setParallelModelLoading(parallelModelLoading);
+	}
+
+	/**
+	 * Sets a directory for caching parsed model files. Model files that did
+	 * not change since the last run are read from a binary copy in this
+	 * directory instead of parsing the XMI file again. Optional, no cache is
+	 * used by default.
+	 * 
+	 * @param modelCachePath
+	 *            the cache directory, e.g., a subdirectory of the temp
+	 *            directory.
+	 */
+	public void setModelCachePath(String modelCachePath) {
+		dependencySolverConfiguration.setModelCachePath(modelCachePath);
+	}
+
+	/**
+	 * Specify whether the external calls of a usage scenario should be
+	 * analysed in parallel. The resulting call graphs are the same as for the
+	 * sequential analysis.
+	 * 
+	 * @param parallelSolving
+	 *            true to analyse the external calls in parallel.
+	 */
+	public void setParallelSolving(boolean parallelSolving) {
+		dependencySolverConfiguration.setParallelSolving(parallelSolving);
+	}
+
+	/**
+	 * Specify whether the replicas of a component, i.e., the component
+	 * deployed on several servers, and the forked behaviours of a fork action
+	 * should be analysed in parallel. The resulting call graphs are the same
+	 * as for the sequential analysis.
+	 * 
+	 * @param parallelTraversal
+	 *            true to analyse replicas and forked behaviours in parallel.
+	 */
+	public void setParallelTraversal(boolean parallelTraversal) {
+		dependencySolverConfiguration.setParallelTraversal(parallelTraversal);
+	}
+
 }
@@ -11,6 +11,10 @@ public class DependencySolverConfiguration {
 	
 	private String baseDirectoryPath;
 	private String baseFileName;
+	private boolean parallelModelLoading = false;
+	private String modelCachePath;
+	private boolean parallelSolving = false;
+	private boolean parallelTraversal = false;
 	
 	protected DependencySolverConfiguration(String baseDirectoryPath, String baseFileName){
 		this.baseDirectoryPath = baseDirectoryPath;
@@ -25,4 +29,36 @@ public class DependencySolverConfiguration {
 		return baseDirectoryPath + File.separator + baseFileName + ALLOCATION_MODEL_EXTENSION;
 	}
 
+	public boolean isParallelModelLoading() {
+		return parallelModelLoading;
+	}
+
+	protected void setParallelModelLoading(boolean parallelModelLoading) {
+		this.parallelModelLoading = parallelModelLoading;
+	}
+
+	public String getModelCachePath() {
+		return modelCachePath;
+	}
+
+	protected void setModelCachePath(String modelCachePath) {
+		this.modelCachePath = modelCachePath;
+	}
+
+	public boolean isParallelSolving() {
+		return parallelSolving;
+	}
+
+	protected void setParallelSolving(boolean parallelSolving) {
+		this.parallelSolving = parallelSolving;
+	}
+
+	public boolean isParallelTraversal() {
+		return parallelTraversal;
+	}
+
+	protected void setParallelTraversal(boolean parallelTraversal) {
+		this.parallelTraversal = parallelTraversal;
+	}
+
 }
@@ -6,11 +6,15 @@ import java.util.Map;
 
 /**
  * A call graph consists of a start node, SEFFs as nodes and links between the SEFFs.
+ * Entities and links can be added concurrently, e.g., by the traversals of several
+ * component replicas.
  */
 public class CallGraph {
 	private String graphName;
 	private String graphId;
 	private String graphInterfaceName;
+	private String usageScenarioName;
+	private String usageScenarioId;
 	private Map<String, CallEntity> entities = new HashMap<String, CallEntity>();
 	private Map<String, Link> links = new HashMap<>();
 	private CallEntity start;
@@ -49,11 +53,32 @@ public class CallGraph {
 		return graphId;
 	}
 
+	/**
+	 * @return the name of the usage scenario the external call belongs to, or
+	 *         null if unknown.
+	 */
+	public String getUsageScenarioName() {
+		return usageScenarioName;
+	}
+
+	/**
+	 * @return the id of the usage scenario the external call belongs to, or
+	 *         null if unknown.
+	 */
+	public String getUsageScenarioId() {
+		return usageScenarioId;
+	}
+
+	protected void setUsageScenario(String usageScenarioName, String usageScenarioId) {
+		this.usageScenarioName = usageScenarioName;
+		this.usageScenarioId = usageScenarioId;
+	}
+
 	public CallEntity getStartEntity() {
 		return start;
 	}
 
-	public CallEntity getEntity(String componentName, String componentId, String methodName, String methodId,
+	public synchronized CallEntity getEntity(String componentName, String componentId, String methodName, String methodId,
 			String interfaceName, String interfaceId) {
 		String searchId = methodId + componentId + interfaceId;
 		if (entities.containsKey(searchId)) {
@@ -66,7 +91,7 @@ public class CallGraph {
 		}
 	}
 
-	public void addLink(CallEntity startEntity, CallEntity targetEntity) {
+	public synchronized void addLink(CallEntity startEntity, CallEntity targetEntity) {
 		String startId = startEntity.getMethodId() + startEntity.getComponentId() + startEntity.getInterfaceId();
 		String endId = targetEntity.getMethodId() + targetEntity.getComponentId() + targetEntity.getInterfaceId();
 		String linkId = startId + endId;
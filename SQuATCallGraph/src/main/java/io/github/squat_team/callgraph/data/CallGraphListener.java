@@ -0,0 +1,18 @@
+package io.github.squat_team.callgraph.data;
+
+/**
+ * Receives the call graphs of a streaming run one by one, as soon as the
+ * analysis of the corresponding external call is finished.
+ */
+public interface CallGraphListener {
+
+	/**
+	 * Called once for each call graph. The graph is complete and will not be
+	 * changed anymore.
+	 * 
+	 * @param callGraph
+	 *            the finished call graph.
+	 */
+	void callGraphFinished(CallGraph callGraph);
+
+}
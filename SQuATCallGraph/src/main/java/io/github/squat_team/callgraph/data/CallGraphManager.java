@@ -10,9 +10,23 @@ import java.util.List;
  */
 public class CallGraphManager {
 	private List<CallGraph> callGraphs = new ArrayList<CallGraph>();
+	private String usageScenarioName;
+	private String usageScenarioId;
+
+	/**
+	 * Sets the usage scenario the call graphs generated afterwards belong to.
+	 * 
+	 * @param usageScenarioName
+	 * @param usageScenarioId
+	 */
+	public void setUsageScenario(String usageScenarioName, String usageScenarioId) {
+		this.usageScenarioName = usageScenarioName;
+		this.usageScenarioId = usageScenarioId;
+	}
 
 	public CallGraph generateNewCallGraph(String graphName, String graphId, String graphInterfaceName) {
 		CallGraph callGraph = new CallGraph(graphName, graphId, graphInterfaceName);
+		callGraph.setUsageScenario(usageScenarioName, usageScenarioId);
 		callGraphs.add(callGraph);
 		return callGraph;
 	}
@@ -21,4 +35,26 @@ public class CallGraphManager {
 		return callGraphs;
 	}
 
+	/**
+	 * Appends all call graphs of another manager, e.g., the call graphs of
+	 * another usage scenario.
+	 * 
+	 * @param callGraphManager
+	 *            the manager to take the call graphs from.
+	 */
+	public void addCallGraphs(CallGraphManager callGraphManager) {
+		callGraphs.addAll(callGraphManager.getCallGraphs());
+	}
+
+	/**
+	 * Removes a call graph from the manager, e.g., after it has been handed to
+	 * a {@link CallGraphListener}.
+	 * 
+	 * @param callGraph
+	 *            the call graph to remove.
+	 */
+	public void removeCallGraph(CallGraph callGraph) {
+		callGraphs.remove(callGraph);
+	}
+
 }
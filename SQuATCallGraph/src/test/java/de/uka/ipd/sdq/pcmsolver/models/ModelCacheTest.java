@@ -0,0 +1,117 @@
+package de.uka.ipd.sdq.pcmsolver.models;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Loads a small Ecore model through the cache.
+ */
+public class ModelCacheTest {
+	private File directory;
+	private File cacheDirectory;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("modelcache").toFile();
+		cacheDirectory = new File(directory, "cache");
+	}
+
+	@After
+	public void tearDown() {
+		for (File dir : new File[] { cacheDirectory, directory }) {
+			File[] files = dir.listFiles();
+			if (files != null) {
+				for (File file : files) {
+					file.delete();
+				}
+			}
+			dir.delete();
+		}
+	}
+
+	@Test
+	public void testHitAndMiss() throws IOException {
+		URI uri = save("model.xmi", "first");
+		ModelCache cache = new ModelCache(cacheDirectory.getPath());
+
+		Resource parsed = cache.getResource(createResourceSet(), uri);
+		assertFalse(parsed instanceof BinaryResourceImpl);
+		assertEquals(1, countCacheFiles());
+
+		Resource cached = cache.getResource(createResourceSet(), uri);
+		assertTrue(cached instanceof BinaryResourceImpl);
+		assertEquals(uri, cached.getURI());
+		assertEquals("first", ((EPackage) cached.getContents().get(0)).getName());
+	}
+
+	@Test
+	public void testChangedFile() throws IOException {
+		URI uri = save("model.xmi", "first");
+		ModelCache cache = new ModelCache(cacheDirectory.getPath());
+		cache.getResource(createResourceSet(), uri);
+
+		save("model.xmi", "second");
+		Resource parsed = cache.getResource(createResourceSet(), uri);
+		assertFalse(parsed instanceof BinaryResourceImpl);
+		assertEquals("second", ((EPackage) parsed.getContents().get(0)).getName());
+		assertEquals(2, countCacheFiles());
+
+		Resource cached = cache.getResource(createResourceSet(), uri);
+		assertTrue(cached instanceof BinaryResourceImpl);
+		assertEquals("second", ((EPackage) cached.getContents().get(0)).getName());
+	}
+
+	@Test
+	public void testMaximumSize() throws IOException {
+		ModelCache cache = new ModelCache(cacheDirectory.getPath(), 1);
+		URI first = save("first.xmi", "first");
+		URI second = save("second.xmi", "second");
+		cache.getResource(createResourceSet(), first);
+		cache.getResource(createResourceSet(), second);
+		assertEquals(1, countCacheFiles());
+		assertTrue(cache.getResource(createResourceSet(), second) instanceof BinaryResourceImpl);
+		assertFalse(cache.getResource(createResourceSet(), first) instanceof BinaryResourceImpl);
+	}
+
+	private URI save(String fileName, String packageName) throws IOException {
+		URI uri = URI.createFileURI(new File(directory, fileName).getAbsolutePath());
+		Resource resource = createResourceSet().createResource(uri);
+		EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+		ePackage.setName(packageName);
+		resource.getContents().add(ePackage);
+		resource.save(Collections.emptyMap());
+		return uri;
+	}
+
+	private int countCacheFiles() {
+		int count = 0;
+		for (File file : cacheDirectory.listFiles()) {
+			if (file.getName().endsWith(".bin")) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static ResourceSet createResourceSet() {
+		ResourceSet resourceSet = new ResourceSetImpl();
+		resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put("xmi", new XMIResourceFactoryImpl());
+		return resourceSet;
+	}
+}
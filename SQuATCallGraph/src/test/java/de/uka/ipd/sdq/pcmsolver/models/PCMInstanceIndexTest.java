@@ -0,0 +1,157 @@
+package de.uka.ipd.sdq.pcmsolver.models;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.palladiosimulator.pcm.allocation.AllocationContext;
+import org.palladiosimulator.pcm.core.composition.AssemblyContext;
+import org.palladiosimulator.pcm.repository.BasicComponent;
+import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
+import org.palladiosimulator.pcm.resourceenvironment.ResourceContainer;
+import org.palladiosimulator.pcm.resourceenvironment.ResourceenvironmentFactory;
+import org.palladiosimulator.pcm.repository.Role;
+import org.palladiosimulator.pcm.repository.Signature;
+import org.palladiosimulator.pcm.resourcetype.ProcessingResourceType;
+import org.palladiosimulator.pcm.seff.ExternalCallAction;
+
+import de.fakeller.palladio.environment.PalladioEclipseEnvironment;
+import de.uka.ipd.sdq.pcmsolver.transformations.ConnectorIndex;
+import de.uka.ipd.sdq.pcmsolver.transformations.ContextWrapper;
+import de.uka.ipd.sdq.pcmsolver.transformations.ResourceEnvironmentIndex;
+import de.uka.ipd.sdq.pcmsolver.transformations.SeffIndex;
+
+/**
+ * Looks up elements of the fork model through the indexes of the
+ * {@link PCMInstance}.
+ */
+public class PCMInstanceIndexTest {
+	private static PCMInstance model;
+
+	@BeforeClass
+	public static void setUpBeforeClass() {
+		PalladioEclipseEnvironment.INSTANCE.setup();
+		ClassLoader classLoader = PCMInstanceIndexTest.class.getClassLoader();
+		Properties properties = new Properties();
+		properties.put("Filename_UsageModel",
+				new File(classLoader.getResource("fork/fork.usagemodel").getFile()).getPath());
+		properties.put("Filename_AllocationModel",
+				new File(classLoader.getResource("fork/fork.allocation").getFile()).getPath());
+		model = new PCMInstance(properties);
+	}
+
+	@Test
+	public void testAllocationContexts() {
+		List<AllocationContext> backendAllocations = model
+				.getAllocationContexts((AssemblyContext) getElement("_backendAssembly"));
+		assertEquals(2, backendAllocations.size());
+		assertSame(getElement("_backendAllocation1"), backendAllocations.get(0));
+		assertSame(getElement("_backendAllocation2"), backendAllocations.get(1));
+
+		List<AllocationContext> frontendAllocations = model
+				.getAllocationContexts((AssemblyContext) getElement("_frontendAssembly"));
+		assertEquals(1, frontendAllocations.size());
+		assertSame(getElement("_frontendAllocation"), frontendAllocations.get(0));
+	}
+
+	@Test
+	public void testConnectors() {
+		ConnectorIndex connectorIndex = model.getConnectorIndex();
+		AssemblyContext frontend = (AssemblyContext) getElement("_frontendAssembly");
+		AssemblyContext backend = (AssemblyContext) getElement("_backendAssembly");
+
+		assertSame(getElement("_frontendToBackend"),
+				connectorIndex.getAssemblyConnector(frontend, "_frontendRequires", "_iBackend"));
+		assertNull(connectorIndex.getAssemblyConnector(backend, "_frontendRequires", "_iBackend"));
+		assertNull(connectorIndex.getRequiredDelegationConnector(frontend, "_frontendRequires"));
+		assertSame(getElement("_frontendDelegation"),
+				connectorIndex.getProvidedDelegationConnector(model.getSystem(), "_systemProvides"));
+
+		List<AssemblyContext> providing = connectorIndex.getProvidingAssemblyContexts(backend,
+				(Role) getElement("_backendProvides"));
+		assertEquals(1, providing.size());
+		assertSame(backend, providing.get(0));
+	}
+
+	@Test
+	public void testSeffs() {
+		SeffIndex seffIndex = model.getSeffIndex();
+		BasicComponent backend = (BasicComponent) getElement("_backend");
+		assertSame(getElement("_storeSeff"), seffIndex.getSeff(backend, (Signature) getElement("_store")));
+		assertSame(getElement("_loadSeff"), seffIndex.getSeff(backend, (Signature) getElement("_load")));
+		assertNull(seffIndex.getSeff(backend, (Signature) getElement("_process")));
+
+		ContextWrapper contextWrapper = new ContextWrapper(model);
+		contextWrapper.setAssCtxList(Arrays.asList((AssemblyContext) getElement("_frontendAssembly")));
+		ExternalCallAction storeCall = (ExternalCallAction) getElement("_syncStoreCall");
+		assertSame(getElement("_storeSeff"), seffIndex.getSeff(contextWrapper, storeCall));
+		assertSame(getElement("_storeSeff"), seffIndex.getSeff(contextWrapper, storeCall));
+		assertSame(getElement("_loadSeff"),
+				seffIndex.getSeff(contextWrapper, (ExternalCallAction) getElement("_innerLoadCall")));
+	}
+
+	@Test
+	public void testLinkingResources() {
+		ResourceEnvironmentIndex resourceEnvironmentIndex = model.getResourceEnvironmentIndex();
+		ResourceContainer server1 = (ResourceContainer) getElement("_server1");
+		ResourceContainer server2 = (ResourceContainer) getElement("_server2");
+		assertSame(getElement("_lanSpecification"),
+				resourceEnvironmentIndex.getCommunicationLinkResourceSpecification(server1, server2));
+		assertSame(getElement("_lanSpecification"),
+				resourceEnvironmentIndex.getCommunicationLinkResourceSpecification(server2, server1));
+
+		ResourceContainer unconnected = ResourceenvironmentFactory.eINSTANCE.createResourceContainer();
+		unconnected.setId("_unconnected");
+		assertNull(resourceEnvironmentIndex.getCommunicationLinkResourceSpecification(server1, unconnected));
+	}
+
+	@Test
+	public void testProcessingResources() {
+		ResourceEnvironmentIndex resourceEnvironmentIndex = model.getResourceEnvironmentIndex();
+		ResourceContainer server1 = (ResourceContainer) getElement("_server1");
+		ResourceContainer server2 = (ResourceContainer) getElement("_server2");
+		assertSame(server1, resourceEnvironmentIndex.getResourceContainer("_server1"));
+		assertSame(server2, resourceEnvironmentIndex.getResourceContainerByName("server-2"));
+
+		ProcessingResourceSpecification cpu = (ProcessingResourceSpecification) getElement("_server2Cpu");
+		ProcessingResourceType cpuType = cpu.getActiveResourceType_ActiveResourceSpecification();
+		assertSame(cpu, resourceEnvironmentIndex.getProcessingResourceSpecification(server2, cpuType));
+		List<ProcessingResourceSpecification> cpus = resourceEnvironmentIndex
+				.getProcessingResourceSpecifications(server2, cpuType.getEntityName());
+		assertEquals(1, cpus.size());
+		assertSame(cpu, cpus.get(0));
+		assertTrue(resourceEnvironmentIndex.getProcessingResourceSpecifications(server2, "HDD").isEmpty());
+		assertFalse(PCMInstance.isSystemExternalResourceType(cpuType));
+	}
+
+	@Test
+	public void testSystemExternalResource() {
+		ProcessingResourceSpecification systemExternal = model.getSystemExternalResourceSpecification();
+		assertSame(systemExternal, model.getSystemExternalResourceSpecification());
+		assertTrue(PCMInstance.isSystemExternalResourceType(
+				systemExternal.getActiveResourceType_ActiveResourceSpecification()));
+		assertSame(systemExternal.getResourceContainer_ProcessingResourceSpecification(), model
+				.getResourceEnvironmentIndex().getResourceContainerByName("SystemExternalResourceContainer"));
+	}
+
+	/**
+	 * @return the element of the fork model with the given id.
+	 */
+	private static EObject getElement(String id) {
+		for (Resource resource : model.getResourceSet().getResources()) {
+			EObject element = resource.getEObject(id);
+			if (element != null) {
+				return element;
+			}
+		}
+		fail("no element " + id);
+		return null;
+	}
+}
@@ -0,0 +1,50 @@
+package de.uka.ipd.sdq.pcmsolver.models;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Indexes the Cocome model without loading it.
+ */
+public class PCMModelIndexTest {
+	private static PCMModelIndex index;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws IOException {
+		ClassLoader classLoader = PCMModelIndexTest.class.getClassLoader();
+		File usageModel = new File(classLoader.getResource("cocome/cocome-cloud.usagemodel").getFile());
+		File allocation = new File(classLoader.getResource("cocome/cocome-cloud.allocation").getFile());
+		index = PCMModelIndex.create(Arrays.asList(usageModel.getPath(), allocation.getPath()));
+	}
+
+	@Test
+	public void testUsageScenarios() {
+		List<PCMModelIndex.Element> usageScenarios = index.getUsageScenarios();
+		assertEquals(1, usageScenarios.size());
+		assertEquals("defaultUsageScenario", usageScenarios.get(0).getName());
+	}
+
+	@Test
+	public void testEntryLevelSystemCalls() {
+		String usageScenarioId = index.getUsageScenarios().get(0).getId();
+		List<PCMModelIndex.Element> calls = index.getEntryLevelSystemCalls(usageScenarioId);
+		assertEquals(6, calls.size());
+		assertEquals("ResetSale", calls.get(0).getName());
+		assertEquals("scanProductBarcode", calls.get(1).getName());
+		assertEquals("EntryLevelSystemCall", calls.get(1).getType());
+	}
+
+	@Test
+	public void testReferencedFilesAreIndexed() {
+		assertNotNull(index.getElement("_v97g8GVREead_5QKkcGuDg"));
+		assertTrue(index.getUnresolvedReferences().isEmpty());
+	}
+
+}
@@ -0,0 +1,76 @@
+package de.uka.ipd.sdq.pcmsolver.transformations;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.palladiosimulator.pcm.allocation.AllocationContext;
+import org.palladiosimulator.pcm.allocation.AllocationFactory;
+import org.palladiosimulator.solver.context.computed_allocation.ComputedAllocation;
+import org.palladiosimulator.solver.context.computed_allocation.ComputedAllocationContext;
+import org.palladiosimulator.solver.context.computed_allocation.ComputedAllocationFactory;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsageContext;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsageFactory;
+
+/**
+ * Looks up computed allocation contexts by allocation and usage context.
+ */
+public class ComputedAllocationContextIndexTest {
+	private ComputedAllocation computedAllocation;
+	private ComputedAllocationContextIndex index;
+	private AllocationContext allocationContext;
+	private AllocationContext otherAllocationContext;
+	private ComputedUsageContext usageContext;
+	private ComputedUsageContext otherUsageContext;
+
+	@Before
+	public void setUp() {
+		computedAllocation = ComputedAllocationFactory.eINSTANCE.createComputedAllocation();
+		index = new ComputedAllocationContextIndex(computedAllocation);
+		allocationContext = AllocationFactory.eINSTANCE.createAllocationContext();
+		allocationContext.setId("_allocation");
+		otherAllocationContext = AllocationFactory.eINSTANCE.createAllocationContext();
+		otherAllocationContext.setId("_otherAllocation");
+		usageContext = ComputedUsageFactory.eINSTANCE.createComputedUsageContext();
+		usageContext.setId("_usage");
+		otherUsageContext = ComputedUsageFactory.eINSTANCE.createComputedUsageContext();
+		otherUsageContext.setId("_otherUsage");
+	}
+
+	@Test
+	public void testFind() {
+		addContext(otherAllocationContext, usageContext);
+		ComputedAllocationContext context = addContext(allocationContext, usageContext);
+		addContext(allocationContext, otherUsageContext);
+		assertSame(context, index.find(allocationContext, usageContext));
+		assertNull(index.find(otherAllocationContext, otherUsageContext));
+	}
+
+	@Test
+	public void testFirstInListOrder() {
+		ComputedAllocationContext first = addContext(allocationContext, usageContext);
+		addContext(allocationContext, usageContext);
+		assertSame(first, index.find(allocationContext, usageContext));
+	}
+
+	@Test
+	public void testContextsChangedLater() {
+		assertNull(index.find(allocationContext, usageContext));
+		ComputedAllocationContext first = addContext(allocationContext, usageContext);
+		assertSame(first, index.find(allocationContext, usageContext));
+
+		computedAllocation.getComputedAllocationContexts_ComputedAllocation().remove(first);
+		assertNull(index.find(allocationContext, usageContext));
+		ComputedAllocationContext second = addContext(allocationContext, usageContext);
+		assertSame(second, index.find(allocationContext, usageContext));
+	}
+
+	private ComputedAllocationContext addContext(AllocationContext allocationContext,
+			ComputedUsageContext usageContext) {
+		ComputedAllocationContext context = ComputedAllocationFactory.eINSTANCE.createComputedAllocationContext();
+		context.setAllocationContext_ComputedAllocationContext(allocationContext);
+		context.setUsageContext_ComputedAllocationContext(usageContext);
+		computedAllocation.getComputedAllocationContexts_ComputedAllocation().add(context);
+		return context;
+	}
+}
@@ -0,0 +1,90 @@
+package de.uka.ipd.sdq.pcmsolver.transformations;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.palladiosimulator.pcm.allocation.AllocationContext;
+import org.palladiosimulator.pcm.allocation.AllocationFactory;
+import org.palladiosimulator.pcm.core.composition.AssemblyContext;
+import org.palladiosimulator.pcm.core.composition.CompositionFactory;
+import org.palladiosimulator.solver.context.computed_allocation.ComputedAllocationContext;
+import org.palladiosimulator.solver.context.computed_allocation.ComputedAllocationFactory;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsageContext;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsageFactory;
+
+import de.uka.ipd.sdq.pcmsolver.models.PCMInstance;
+
+/**
+ * Shares the maps derived from computed contexts between context wrappers.
+ */
+public class ComputedContextTablesTest {
+	private ComputedUsageContext compUsgCtx;
+	private ComputedAllocationContext compAllCtx;
+	private AllocationContext allCtx;
+
+	@Before
+	public void setUp() {
+		compUsgCtx = ComputedUsageFactory.eINSTANCE.createComputedUsageContext();
+		compAllCtx = ComputedAllocationFactory.eINSTANCE.createComputedAllocationContext();
+		allCtx = AllocationFactory.eINSTANCE.createAllocationContext();
+	}
+
+	@Test
+	public void testSharedByEqualContexts() {
+		AssemblyContext assCtx = CompositionFactory.eINSTANCE.createAssemblyContext();
+		ContextWrapper first = createContextWrapper(assCtx);
+		ComputedContextTables tables = new ComputedContextTables(first);
+		tables.attach();
+
+		assertSame(tables, ComputedContextTables.getExisting(first));
+		assertSame(tables, ComputedContextTables.getExisting(createContextWrapper(assCtx)));
+	}
+
+	@Test
+	public void testTablesOfOtherAssemblyContexts() {
+		ContextWrapper first = createContextWrapper(CompositionFactory.eINSTANCE.createAssemblyContext());
+		ContextWrapper second = createContextWrapper(CompositionFactory.eINSTANCE.createAssemblyContext());
+		ComputedContextTables firstTables = new ComputedContextTables(first);
+		firstTables.attach();
+		assertNull(ComputedContextTables.getExisting(second));
+		ComputedContextTables secondTables = new ComputedContextTables(second);
+		secondTables.attach();
+
+		// the maps of the first wrapper stay attached and notice changes
+		assertSame(firstTables, ComputedContextTables.getExisting(first));
+		assertSame(secondTables, ComputedContextTables.getExisting(second));
+		compAllCtx.getResourceDemands_ComputedAllocationContext()
+				.add(ComputedAllocationFactory.eINSTANCE.createResourceDemand());
+		assertTrue(firstTables.isStale());
+		assertTrue(secondTables.isStale());
+		assertNull(ComputedContextTables.getExisting(first));
+	}
+
+	@Test
+	public void testStaleTablesReplaced() {
+		ContextWrapper contextWrapper = createContextWrapper(CompositionFactory.eINSTANCE.createAssemblyContext());
+		ComputedContextTables staleTables = new ComputedContextTables(contextWrapper);
+		staleTables.attach();
+		compUsgCtx.getExternalCallOutput_ComputedUsageContext()
+				.add(ComputedUsageFactory.eINSTANCE.createExternalCallOutput());
+		assertTrue(staleTables.isStale());
+
+		ComputedContextTables tables = new ComputedContextTables(contextWrapper);
+		tables.attach();
+		assertFalse(compAllCtx.eAdapters().contains(staleTables));
+		assertFalse(compUsgCtx.eAdapters().contains(staleTables));
+		assertSame(tables, ComputedContextTables.getExisting(contextWrapper));
+	}
+
+	private ContextWrapper createContextWrapper(AssemblyContext assCtx) {
+		ContextWrapper contextWrapper = new ContextWrapper((PCMInstance) null);
+		contextWrapper.setAssCtxList(Arrays.asList(assCtx));
+		contextWrapper.setAllCtx(allCtx);
+		contextWrapper.setCompUsgCtx(compUsgCtx);
+		contextWrapper.setCompAllCtx(compAllCtx);
+		return contextWrapper;
+	}
+}
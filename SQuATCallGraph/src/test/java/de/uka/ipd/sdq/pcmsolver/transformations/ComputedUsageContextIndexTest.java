@@ -0,0 +1,99 @@
+package de.uka.ipd.sdq.pcmsolver.transformations;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.palladiosimulator.pcm.core.CoreFactory;
+import org.palladiosimulator.pcm.core.PCMRandomVariable;
+import org.palladiosimulator.pcm.core.composition.AssemblyContext;
+import org.palladiosimulator.pcm.core.composition.CompositionFactory;
+import org.palladiosimulator.pcm.parameter.ParameterFactory;
+import org.palladiosimulator.pcm.parameter.VariableCharacterisation;
+import org.palladiosimulator.pcm.parameter.VariableCharacterisationType;
+import org.palladiosimulator.pcm.parameter.VariableUsage;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsage;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsageContext;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsageFactory;
+import org.palladiosimulator.solver.context.computed_usage.Input;
+
+import de.uka.ipd.sdq.stoex.StoexFactory;
+import de.uka.ipd.sdq.stoex.VariableReference;
+
+/**
+ * Looks up computed usage contexts by their input.
+ */
+public class ComputedUsageContextIndexTest {
+	private ComputedUsage computedUsage;
+	private ComputedUsageContextIndex index;
+	private AssemblyContext assemblyContext;
+	private AssemblyContext otherAssemblyContext;
+
+	@Before
+	public void setUp() {
+		computedUsage = ComputedUsageFactory.eINSTANCE.createComputedUsage();
+		index = new ComputedUsageContextIndex(computedUsage);
+		assemblyContext = CompositionFactory.eINSTANCE.createAssemblyContext();
+		assemblyContext.setId("_assembly");
+		otherAssemblyContext = CompositionFactory.eINSTANCE.createAssemblyContext();
+		otherAssemblyContext.setId("_otherAssembly");
+	}
+
+	@Test
+	public void testFirstMatchInListOrder() {
+		ComputedUsageContext superset = addContext(assemblyContext, usage("x", "1"), usage("y", "2"));
+		addContext(assemblyContext, usage("x", "1"));
+		assertSame(superset, index.find(assemblyContext, Arrays.asList(usage("x", "1"))));
+	}
+
+	@Test
+	public void testExactMatch() {
+		addContext(otherAssemblyContext, usage("x", "1"));
+		addContext(assemblyContext, usage("x", "2"));
+		ComputedUsageContext exact = addContext(assemblyContext, usage("x", "1"));
+		assertSame(exact, index.find(assemblyContext, Arrays.asList(usage("x", " 1 "))));
+		assertNull(index.find(assemblyContext, Arrays.asList(usage("x", "3"))));
+	}
+
+	@Test
+	public void testContextsAddedLater() {
+		assertNull(index.find(assemblyContext, Arrays.asList(usage("x", "1"))));
+		ComputedUsageContext context = addContext(assemblyContext, usage("x", "1"));
+		assertSame(context, index.find(assemblyContext, Arrays.asList(usage("x", "1"))));
+	}
+
+	@Test
+	public void testWithoutInput() {
+		addContext(assemblyContext, usage("x", "1"));
+		assertNull(index.findWithoutInput(assemblyContext));
+		ComputedUsageContext context = addContext(assemblyContext);
+		assertSame(context, index.findWithoutInput(assemblyContext));
+		assertNull(index.findWithoutInput(otherAssemblyContext));
+	}
+
+	private ComputedUsageContext addContext(AssemblyContext assemblyContext, VariableUsage... parameters) {
+		ComputedUsageContext context = ComputedUsageFactory.eINSTANCE.createComputedUsageContext();
+		context.setAssemblyContext_ComputedUsageContext(assemblyContext);
+		Input input = ComputedUsageFactory.eINSTANCE.createInput();
+		input.getParameterChacterisations_Input().addAll(Arrays.asList(parameters));
+		context.setInput_ComputedUsageContext(input);
+		computedUsage.getUsageContexts_ComputedUsage().add(context);
+		return context;
+	}
+
+	private static VariableUsage usage(String name, String value) {
+		VariableReference reference = StoexFactory.eINSTANCE.createVariableReference();
+		reference.setReferenceName(name);
+		PCMRandomVariable specification = CoreFactory.eINSTANCE.createPCMRandomVariable();
+		specification.setSpecification(value);
+		VariableCharacterisation characterisation = ParameterFactory.eINSTANCE.createVariableCharacterisation();
+		characterisation.setType(VariableCharacterisationType.VALUE);
+		characterisation.setSpecification_VariableCharacterisation(specification);
+		VariableUsage usage = ParameterFactory.eINSTANCE.createVariableUsage();
+		usage.setNamedReference__VariableUsage(reference);
+		usage.getVariableCharacterisation_VariableUsage().add(characterisation);
+		return usage;
+	}
+}
@@ -0,0 +1,44 @@
+package de.uka.ipd.sdq.pcmsolver.transformations;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import de.uka.ipd.sdq.stoex.NamespaceReference;
+import de.uka.ipd.sdq.stoex.StoexFactory;
+import de.uka.ipd.sdq.stoex.VariableReference;
+
+/**
+ * Determines the interned symbols of parameter references.
+ */
+public class ParameterNamesTest {
+
+	@Test
+	public void testVariableReference() {
+		assertEquals("file", ParameterNames.getSymbol(variable("file")));
+	}
+
+	@Test
+	public void testNamespaceReference() {
+		NamespaceReference outer = StoexFactory.eINSTANCE.createNamespaceReference();
+		outer.setReferenceName("files");
+		NamespaceReference inner = StoexFactory.eINSTANCE.createNamespaceReference();
+		inner.setReferenceName("INNER");
+		inner.setInnerReference_NamespaceReference(variable("BYTESIZE"));
+		outer.setInnerReference_NamespaceReference(inner);
+		assertEquals("files.INNER.BYTESIZE", ParameterNames.getSymbol(outer));
+	}
+
+	@Test
+	public void testInterned() {
+		String symbol = ParameterNames.getSymbol(variable("interned"));
+		assertSame(symbol, ParameterNames.getSymbol(variable("interned")));
+		assertSame(symbol, ParameterNames.getSymbol(new String("interned")));
+	}
+
+	private static VariableReference variable(String name) {
+		VariableReference reference = StoexFactory.eINSTANCE.createVariableReference();
+		reference.setReferenceName(name);
+		return reference;
+	}
+}
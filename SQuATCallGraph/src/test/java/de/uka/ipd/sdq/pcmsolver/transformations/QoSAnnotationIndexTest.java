@@ -0,0 +1,92 @@
+package de.uka.ipd.sdq.pcmsolver.transformations;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.palladiosimulator.pcm.qosannotations.QoSAnnotations;
+import org.palladiosimulator.pcm.qosannotations.QosannotationsFactory;
+import org.palladiosimulator.pcm.qosannotations.SpecifiedQoSAnnotation;
+import org.palladiosimulator.pcm.qosannotations.qos_performance.QosPerformanceFactory;
+import org.palladiosimulator.pcm.qosannotations.qos_performance.SpecifiedExecutionTime;
+import org.palladiosimulator.pcm.qosannotations.qos_reliability.QosReliabilityFactory;
+import org.palladiosimulator.pcm.qosannotations.qos_reliability.SpecifiedReliabilityAnnotation;
+import org.palladiosimulator.pcm.repository.OperationInterface;
+import org.palladiosimulator.pcm.repository.OperationRequiredRole;
+import org.palladiosimulator.pcm.repository.OperationSignature;
+import org.palladiosimulator.pcm.repository.RepositoryFactory;
+import org.palladiosimulator.pcm.system.System;
+import org.palladiosimulator.pcm.system.SystemFactory;
+
+/**
+ * Looks up the QoS annotations of system external calls.
+ */
+public class QoSAnnotationIndexTest {
+	private System system;
+	private QoSAnnotations annotations;
+	private OperationInterface requiredInterface;
+	private OperationRequiredRole requiredRole;
+	private OperationSignature signature;
+	private OperationSignature otherSignature;
+
+	@Before
+	public void setUp() {
+		system = SystemFactory.eINSTANCE.createSystem();
+		annotations = QosannotationsFactory.eINSTANCE.createQoSAnnotations();
+		system.getQosAnnotations_System().add(annotations);
+		requiredInterface = RepositoryFactory.eINSTANCE.createOperationInterface();
+		requiredInterface.setEntityName("IStorage");
+		requiredRole = RepositoryFactory.eINSTANCE.createOperationRequiredRole();
+		requiredRole.setId("_storageRequires");
+		requiredRole.setRequiredInterface__OperationRequiredRole(requiredInterface);
+		signature = createSignature("_store", "store");
+		otherSignature = createSignature("_load", "load");
+	}
+
+	@Test
+	public void testExecutionTimes() {
+		SpecifiedExecutionTime first = add(QosPerformanceFactory.eINSTANCE.createSystemSpecifiedExecutionTime(),
+				signature);
+		add(QosPerformanceFactory.eINSTANCE.createSystemSpecifiedExecutionTime(), signature);
+		QoSAnnotationIndex index = new QoSAnnotationIndex(system);
+		assertSame(first, index.getExecutionTime(requiredInterface, signature));
+		assertNull(index.getExecutionTime(requiredInterface, otherSignature));
+
+		// execution times are found by the names of interface and signature
+		OperationInterface sameNamedInterface = RepositoryFactory.eINSTANCE.createOperationInterface();
+		sameNamedInterface.setEntityName("IStorage");
+		assertSame(first, index.getExecutionTime(sameNamedInterface, createSignature("_otherStore", "store")));
+	}
+
+	@Test
+	public void testReliabilityAnnotations() {
+		SpecifiedReliabilityAnnotation first = add(
+				QosReliabilityFactory.eINSTANCE.createSpecifiedReliabilityAnnotation(), signature);
+		add(QosReliabilityFactory.eINSTANCE.createSpecifiedReliabilityAnnotation(), signature);
+		QoSAnnotationIndex index = new QoSAnnotationIndex(system);
+		assertSame(first, index.getReliabilityAnnotation(requiredRole, signature));
+		assertNull(index.getReliabilityAnnotation(requiredRole, otherSignature));
+		assertNull(index.getExecutionTime(requiredInterface, signature));
+	}
+
+	@Test
+	public void testWithoutAnnotations() {
+		QoSAnnotationIndex index = new QoSAnnotationIndex(SystemFactory.eINSTANCE.createSystem());
+		assertNull(index.getExecutionTime(requiredInterface, signature));
+		assertNull(index.getReliabilityAnnotation(requiredRole, signature));
+	}
+
+	private <T extends SpecifiedQoSAnnotation> T add(T annotation, OperationSignature signature) {
+		annotation.setRole_SpecifiedQoSAnnotation(requiredRole);
+		annotation.setSignature_SpecifiedQoSAnnation(signature);
+		annotations.getSpecifiedQoSAnnotations_QoSAnnotations().add(annotation);
+		return annotation;
+	}
+
+	private static OperationSignature createSignature(String id, String name) {
+		OperationSignature signature = RepositoryFactory.eINSTANCE.createOperationSignature();
+		signature.setId(id);
+		signature.setEntityName(name);
+		return signature;
+	}
+}
@@ -0,0 +1,109 @@
+package de.uka.ipd.sdq.pcmsolver.transformations;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.palladiosimulator.pcm.core.CoreFactory;
+import org.palladiosimulator.pcm.core.PCMRandomVariable;
+import org.palladiosimulator.pcm.parameter.ParameterFactory;
+import org.palladiosimulator.pcm.parameter.VariableCharacterisation;
+import org.palladiosimulator.pcm.parameter.VariableCharacterisationType;
+import org.palladiosimulator.pcm.parameter.VariableUsage;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsageContext;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsageFactory;
+import org.palladiosimulator.solver.context.computed_usage.ExternalCallOutput;
+import org.palladiosimulator.solver.context.computed_usage.Input;
+
+import de.uka.ipd.sdq.stoex.StoexFactory;
+import de.uka.ipd.sdq.stoex.VariableReference;
+
+/**
+ * Looks up the characterisations of the parameters of a computed usage
+ * context.
+ */
+public class UsageContextParametersTest {
+	private ComputedUsageContext context;
+	private Input input;
+
+	@Before
+	public void setUp() {
+		context = ComputedUsageFactory.eINSTANCE.createComputedUsageContext();
+		input = ComputedUsageFactory.eINSTANCE.createInput();
+		context.setInput_ComputedUsageContext(input);
+	}
+
+	@Test
+	public void testInputCharacterisations() {
+		VariableUsage file = usage("file", VariableCharacterisationType.BYTESIZE, "100");
+		file.getVariableCharacterisation_VariableUsage()
+				.add(characterisation(VariableCharacterisationType.BYTESIZE, "200"));
+		file.getVariableCharacterisation_VariableUsage()
+				.add(characterisation(VariableCharacterisationType.VALUE, "1"));
+		input.getParameterChacterisations_Input().add(file);
+		input.getParameterChacterisations_Input().add(usage("file", VariableCharacterisationType.BYTESIZE, "300"));
+
+		Map<VariableCharacterisationType, String> characterisations = UsageContextParameters.get(context)
+				.getInputCharacterisations("file");
+		assertEquals(2, characterisations.size());
+		assertEquals("100", characterisations.get(VariableCharacterisationType.BYTESIZE));
+		assertEquals("1", characterisations.get(VariableCharacterisationType.VALUE));
+		assertNull(UsageContextParameters.get(context).getInputCharacterisations("unknown"));
+	}
+
+	@Test
+	public void testExternalCallOutputs() {
+		input.getParameterChacterisations_Input().add(usage("file", VariableCharacterisationType.VALUE, "1"));
+		ExternalCallOutput output = ComputedUsageFactory.eINSTANCE.createExternalCallOutput();
+		output.getParameterCharacterisations_ExternalCallOutput()
+				.add(usage("file", VariableCharacterisationType.VALUE, "2"));
+		output.getParameterCharacterisations_ExternalCallOutput()
+				.add(usage("result", VariableCharacterisationType.VALUE, "3"));
+		context.getExternalCallOutput_ComputedUsageContext().add(output);
+
+		UsageContextParameters parameters = UsageContextParameters.get(context);
+		assertEquals("1", parameters.getCharacterisations("file").get(VariableCharacterisationType.VALUE));
+		assertEquals("3", parameters.getCharacterisations("result").get(VariableCharacterisationType.VALUE));
+		assertNull(parameters.getInputCharacterisations("result"));
+	}
+
+	@Test
+	public void testParametersAddedLater() {
+		UsageContextParameters parameters = UsageContextParameters.get(context);
+		assertSame(parameters, UsageContextParameters.get(context));
+		assertNull(parameters.getCharacterisations("file"));
+
+		input.getParameterChacterisations_Input().add(usage("file", VariableCharacterisationType.VALUE, "1"));
+		parameters = UsageContextParameters.get(context);
+		assertEquals("1", parameters.getInputCharacterisations("file").get(VariableCharacterisationType.VALUE));
+
+		ExternalCallOutput output = ComputedUsageFactory.eINSTANCE.createExternalCallOutput();
+		context.getExternalCallOutput_ComputedUsageContext().add(output);
+		UsageContextParameters.get(context);
+		output.getParameterCharacterisations_ExternalCallOutput()
+				.add(usage("result", VariableCharacterisationType.VALUE, "2"));
+		parameters = UsageContextParameters.get(context);
+		assertEquals("2", parameters.getCharacterisations("result").get(VariableCharacterisationType.VALUE));
+		assertEquals(1, context.eAdapters().size());
+	}
+
+	private static VariableUsage usage(String name, VariableCharacterisationType type, String specification) {
+		VariableReference reference = StoexFactory.eINSTANCE.createVariableReference();
+		reference.setReferenceName(name);
+		VariableUsage usage = ParameterFactory.eINSTANCE.createVariableUsage();
+		usage.setNamedReference__VariableUsage(reference);
+		usage.getVariableCharacterisation_VariableUsage().add(characterisation(type, specification));
+		return usage;
+	}
+
+	private static VariableCharacterisation characterisation(VariableCharacterisationType type, String specification) {
+		PCMRandomVariable randomVariable = CoreFactory.eINSTANCE.createPCMRandomVariable();
+		randomVariable.setSpecification(specification);
+		VariableCharacterisation characterisation = ParameterFactory.eINSTANCE.createVariableCharacterisation();
+		characterisation.setType(type);
+		characterisation.setSpecification_VariableCharacterisation(randomVariable);
+		return characterisation;
+	}
+}
@@ -0,0 +1,113 @@
+package de.uka.ipd.sdq.pcmsolver.visitors;
+
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+
+import org.eclipse.emf.ecore.EObject;
+import org.junit.Test;
+import org.palladiosimulator.pcm.core.CoreFactory;
+import org.palladiosimulator.pcm.core.PCMRandomVariable;
+import org.palladiosimulator.pcm.parameter.ParameterFactory;
+import org.palladiosimulator.pcm.parameter.VariableCharacterisation;
+import org.palladiosimulator.pcm.parameter.VariableCharacterisationType;
+import org.palladiosimulator.pcm.parameter.VariableUsage;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsageContext;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsageFactory;
+import org.palladiosimulator.solver.context.computed_usage.Input;
+
+import de.uka.ipd.sdq.pcmsolver.models.PCMInstance;
+import de.uka.ipd.sdq.pcmsolver.transformations.ContextWrapper;
+import de.uka.ipd.sdq.stoex.Expression;
+import de.uka.ipd.sdq.stoex.IntLiteral;
+import de.uka.ipd.sdq.stoex.StoexFactory;
+import de.uka.ipd.sdq.stoex.VariableReference;
+
+/**
+ * Parses and solves specifications through the caches of the helper.
+ */
+public class ExpressionHelperTest {
+
+	@Test
+	public void testParseCacheCounters() {
+		long hits = ExpressionHelper.getParseCacheHits();
+		long misses = ExpressionHelper.getParseCacheMisses();
+		assertNotNull(ExpressionHelper.parseToExpression("counted.VALUE + 11"));
+		assertEquals(misses + 1, ExpressionHelper.getParseCacheMisses());
+		assertEquals(hits, ExpressionHelper.getParseCacheHits());
+		assertNotNull(ExpressionHelper.parseToExpression("counted.VALUE + 11"));
+		assertEquals(misses + 1, ExpressionHelper.getParseCacheMisses());
+		assertEquals(hits + 1, ExpressionHelper.getParseCacheHits());
+	}
+
+	@Test
+	public void testModifiedParsedExpression() {
+		Expression expression = ExpressionHelper.parseToExpression("modified.VALUE + 7");
+		String printed = ExpressionHelper.printExpression(expression);
+		getIntLiteral(expression).setValue(8);
+		assertFalse(printed.equals(ExpressionHelper.printExpression(expression)));
+		assertEquals(printed, ExpressionHelper.printExpression(ExpressionHelper.parseToExpression("modified.VALUE + 7")));
+	}
+
+	@Test
+	public void testModifiedSolvedExpression() {
+		ContextWrapper contextWrapper = createContextWrapper("solved", "2");
+		Expression solved = ExpressionHelper.getSolvedExpression("solved.VALUE * 3", contextWrapper);
+		assertEquals(6, evaluate(solved));
+		getIntLiteral(solved).setValue(7);
+		assertEquals(6, evaluate(ExpressionHelper.getSolvedExpression("solved.VALUE * 3", contextWrapper)));
+	}
+
+	@Test
+	public void testSolvedForEachBinding() {
+		ContextWrapper first = createContextWrapper("bound", "2");
+		ContextWrapper second = createContextWrapper("bound", "5");
+		assertEquals(6, evaluate(ExpressionHelper.getSolvedExpression("bound.VALUE * 3", first)));
+		assertEquals(15, evaluate(ExpressionHelper.getSolvedExpression("bound.VALUE * 3", second)));
+		assertEquals(6, evaluate(ExpressionHelper.getSolvedExpression("bound.VALUE * 3", first)));
+	}
+
+	private static Object evaluate(Expression solvedExpression) {
+		return LiteralExpressionEvaluator.evaluateToNumber(ExpressionHelper.printExpression(solvedExpression));
+	}
+
+	private static IntLiteral getIntLiteral(Expression expression) {
+		if (expression instanceof IntLiteral) {
+			return (IntLiteral) expression;
+		}
+		for (Iterator<EObject> contents = expression.eAllContents(); contents.hasNext();) {
+			EObject content = contents.next();
+			if (content instanceof IntLiteral) {
+				return (IntLiteral) content;
+			}
+		}
+		fail("no literal in " + ExpressionHelper.printExpression(expression));
+		return null;
+	}
+
+	/**
+	 * @return a context wrapper whose computed usage context has the given
+	 *         value of the parameter as input.
+	 */
+	private static ContextWrapper createContextWrapper(String parameterName, String value) {
+		VariableReference reference = StoexFactory.eINSTANCE.createVariableReference();
+		reference.setReferenceName(parameterName);
+		PCMRandomVariable specification = CoreFactory.eINSTANCE.createPCMRandomVariable();
+		specification.setSpecification(value);
+		VariableCharacterisation characterisation = ParameterFactory.eINSTANCE.createVariableCharacterisation();
+		characterisation.setType(VariableCharacterisationType.VALUE);
+		characterisation.setSpecification_VariableCharacterisation(specification);
+		VariableUsage usage = ParameterFactory.eINSTANCE.createVariableUsage();
+		usage.setNamedReference__VariableUsage(reference);
+		usage.getVariableCharacterisation_VariableUsage().add(characterisation);
+
+		Input input = ComputedUsageFactory.eINSTANCE.createInput();
+		input.getParameterChacterisations_Input().add(usage);
+		ComputedUsageContext context = ComputedUsageFactory.eINSTANCE.createComputedUsageContext();
+		context.setInput_ComputedUsageContext(input);
+
+		ContextWrapper contextWrapper = new ContextWrapper((PCMInstance) null);
+		contextWrapper.setCompUsgCtx(context);
+		return contextWrapper;
+	}
+}
@@ -0,0 +1,38 @@
+package de.uka.ipd.sdq.pcmsolver.visitors;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Evaluates constant specifications without the StoEx parser.
+ */
+public class LiteralExpressionEvaluatorTest {
+
+	@Test
+	public void testLiterals() {
+		assertEquals(1000, LiteralExpressionEvaluator.evaluateToNumber("1000"));
+		assertEquals(0, LiteralExpressionEvaluator.evaluateToNumber(" 0 "));
+		assertEquals(1.5, LiteralExpressionEvaluator.evaluateToNumber("1.5"));
+		assertEquals(-2, LiteralExpressionEvaluator.evaluateToNumber("-2"));
+	}
+
+	@Test
+	public void testArithmetic() {
+		assertEquals(0, LiteralExpressionEvaluator.evaluateToNumber("(4) / 20"));
+		assertEquals(0.2, LiteralExpressionEvaluator.evaluateToNumber("(4) / ((20)*1.0)"));
+		assertEquals(7, LiteralExpressionEvaluator.evaluateToNumber("1 + 2 * 3"));
+		assertEquals(9, LiteralExpressionEvaluator.evaluateToNumber("(1 + 2) * 3"));
+		assertEquals(1, LiteralExpressionEvaluator.evaluateToNumber("7 % 3"));
+	}
+
+	@Test
+	public void testNotConstant() {
+		assertNull(LiteralExpressionEvaluator.evaluateToNumber("file.BYTESIZE * 2"));
+		assertNull(LiteralExpressionEvaluator.evaluateToNumber("DoublePDF[(1.0;0.5)(2.0;0.5)]"));
+		assertNull(LiteralExpressionEvaluator.evaluateToNumber("(1 + 2"));
+		assertNull(LiteralExpressionEvaluator.evaluateToNumber("1 / 0"));
+		assertNull(LiteralExpressionEvaluator.evaluateToNumber("2147483647 + 1"));
+		assertNull(LiteralExpressionEvaluator.evaluateToNumber(""));
+	}
+}
@@ -0,0 +1,118 @@
+package io.github.squat_team.callgraph;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.squat_team.callgraph.config.CallGraphConfiguration;
+
+/**
+ * Runs the fork model several times in one session and verifies that the
+ * shared models give the same results as a run on its own, and that changed
+ * shared models are loaded again.
+ */
+public class CallGraphSessionTest {
+	private static final String[] MODEL_EXTENSIONS = { "repository", "system", "resourceenvironment", "allocation",
+			"usagemodel" };
+
+	private Path modelPath;
+	private List<Path> outputPaths = new ArrayList<Path>();
+
+	@Before
+	public void setUp() throws IOException {
+		modelPath = Files.createTempDirectory("callgraph-session-models");
+		outputPaths.add(modelPath);
+		ClassLoader classLoader = CallGraphSessionTest.class.getClassLoader();
+		for (String extension : MODEL_EXTENSIONS) {
+			File model = new File(classLoader.getResource("fork/fork." + extension).getFile());
+			Files.copy(model.toPath(), modelPath.resolve(model.getName()));
+		}
+	}
+
+	@After
+	public void cleanUp() {
+		for (Path outputPath : outputPaths) {
+			for (File file : outputPath.toFile().listFiles()) {
+				file.delete();
+			}
+			outputPath.toFile().delete();
+		}
+	}
+
+	@Test
+	public void testSharedModels() throws IOException {
+		Path alonePath = createOutputPath();
+		new CallGraphGenerator(createConfiguration(alonePath)).generate();
+
+		CallGraphSession session = new CallGraphSession();
+		Path firstPath = createOutputPath();
+		Path secondPath = createOutputPath();
+		session.generate(createConfiguration(firstPath));
+		session.generate(createConfiguration(secondPath));
+
+		assertSameFiles(alonePath, firstPath);
+		assertSameFiles(alonePath, secondPath);
+	}
+
+	@Test
+	public void testChangedSharedModel() throws IOException {
+		CallGraphSession session = new CallGraphSession();
+		Path firstPath = createOutputPath();
+		session.generate(createConfiguration(firstPath));
+		assertFalse(readInfo(firstPath).contains("Storage"));
+
+		File repository = modelPath.resolve("fork.repository").toFile();
+		String content = new String(Files.readAllBytes(repository.toPath()), StandardCharsets.UTF_8);
+		Files.write(repository.toPath(),
+				content.replace("entityName=\"Backend\"", "entityName=\"Storage\"").getBytes(StandardCharsets.UTF_8));
+		// the file state must differ even on file systems with coarse timestamps
+		repository.setLastModified(repository.lastModified() + 2000);
+
+		Path secondPath = createOutputPath();
+		session.generate(createConfiguration(secondPath));
+		assertTrue(readInfo(secondPath).contains("Storage"));
+	}
+
+	private Path createOutputPath() throws IOException {
+		Path outputPath = Files.createTempDirectory("callgraph-session");
+		outputPaths.add(outputPath);
+		return outputPath;
+	}
+
+	private CallGraphConfiguration createConfiguration(Path outputPath) throws IOException {
+		CallGraphConfiguration configuration = new CallGraphConfiguration(modelPath.toString(), "fork",
+				outputPath.toString());
+		configuration.setExportIds(true);
+		return configuration;
+	}
+
+	private static String readInfo(Path outputPath) throws IOException {
+		return new String(Files.readAllBytes(outputPath.resolve("CallGraphInfo.txt")), StandardCharsets.UTF_8);
+	}
+
+	private static void assertSameFiles(Path expectedPath, Path actualPath) throws IOException {
+		String[] expectedFiles = expectedPath.toFile().list();
+		String[] actualFiles = actualPath.toFile().list();
+		Arrays.sort(expectedFiles);
+		Arrays.sort(actualFiles);
+		assertArrayEquals(expectedFiles, actualFiles);
+		for (String fileName : expectedFiles) {
+			if (fileName.endsWith(".pdf")) {
+				continue;
+			}
+			assertEquals(fileName, new String(Files.readAllBytes(expectedPath.resolve(fileName))),
+					new String(Files.readAllBytes(actualPath.resolve(fileName))));
+		}
+	}
+}
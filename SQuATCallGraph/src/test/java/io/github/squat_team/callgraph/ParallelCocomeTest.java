@@ -0,0 +1,97 @@
+package io.github.squat_team.callgraph;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.squat_team.callgraph.config.CallGraphConfiguration;
+
+/**
+ * Runs the Cocome model with parallel solving and parallel traversal and
+ * verifies that the results are the same as for the sequential run.
+ */
+public class ParallelCocomeTest {
+	private static Path sequentialOutputPath;
+	private static Path parallelOutputPath;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		ClassLoader classLoader = ParallelCocomeTest.class.getClassLoader();
+		File usageModel = new File(classLoader.getResource("cocome/cocome-cloud.usagemodel").getFile());
+		String baseModelDirectory = usageModel.getParent();
+		String baseModelName = usageModel.getName().replaceAll(".usagemodel", "");
+
+		sequentialOutputPath = Files.createTempDirectory("callgraph-sequential");
+		parallelOutputPath = Files.createTempDirectory("callgraph-parallel");
+
+		try {
+			CallGraphConfiguration configuration = new CallGraphConfiguration(baseModelDirectory, baseModelName,
+					sequentialOutputPath.toString());
+			configuration.setExportIds(true);
+			new CallGraphGenerator(configuration).generate();
+
+			CallGraphConfiguration parallelConfiguration = new CallGraphConfiguration(baseModelDirectory,
+					baseModelName, parallelOutputPath.toString());
+			parallelConfiguration.setExportIds(true);
+			parallelConfiguration.setParallelSolving(true);
+			parallelConfiguration.setParallelTraversal(true);
+			new CallGraphGenerator(parallelConfiguration).generate();
+		} catch (IOException e) {
+			e.printStackTrace();
+			fail("Exception setting up parallel Cocome test");
+		}
+	}
+
+	@AfterClass
+	public static void cleanUp() {
+		deleteDirectory(sequentialOutputPath);
+		deleteDirectory(parallelOutputPath);
+	}
+
+	/**
+	 * Assures the same files have been generated.
+	 */
+	@Test
+	public void testSameFiles() {
+		String[] sequentialFiles = sequentialOutputPath.toFile().list();
+		String[] parallelFiles = parallelOutputPath.toFile().list();
+		Arrays.sort(sequentialFiles);
+		Arrays.sort(parallelFiles);
+		assertEquals(15, sequentialFiles.length);
+		assertArrayEquals(sequentialFiles, parallelFiles);
+	}
+
+	/**
+	 * Assures the call graphs and the call graph information are the same.
+	 */
+	@Test
+	public void testSameContents() throws IOException {
+		for (File sequentialFile : sequentialOutputPath.toFile().listFiles()) {
+			if (sequentialFile.getName().endsWith(".pdf")) {
+				continue;
+			}
+			File parallelFile = new File(parallelOutputPath.toFile(), sequentialFile.getName());
+			assertEquals(sequentialFile.getName(), new String(Files.readAllBytes(sequentialFile.toPath())),
+					new String(Files.readAllBytes(parallelFile.toPath())));
+		}
+	}
+
+	private static void deleteDirectory(Path directory) {
+		if (directory == null) {
+			return;
+		}
+		for (File file : directory.toFile().listFiles()) {
+			file.delete();
+		}
+		directory.toFile().delete();
+	}
+
+}
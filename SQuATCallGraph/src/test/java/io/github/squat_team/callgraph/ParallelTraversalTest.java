@@ -0,0 +1,134 @@
+package io.github.squat_team.callgraph;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.palladiosimulator.solver.context.computed_allocation.ComputedAllocationContext;
+import org.palladiosimulator.solver.context.computed_usage.ComputedUsageContext;
+
+import de.fakeller.palladio.environment.PalladioEclipseEnvironment;
+import de.uka.ipd.sdq.pcmsolver.models.PCMInstance;
+import io.github.squat_team.callgraph.config.CallGraphConfiguration;
+
+/**
+ * Runs models whose SEFFs are traversed concurrently, once sequentially and
+ * once with parallel traversal, and verifies that the exported call graphs and
+ * the computed contexts are the same.
+ */
+public class ParallelTraversalTest {
+	private static List<Path> outputPaths = new ArrayList<Path>();
+
+	@BeforeClass
+	public static void setUpBeforeClass() {
+		PalladioEclipseEnvironment.INSTANCE.setup();
+	}
+
+	@AfterClass
+	public static void cleanUp() {
+		for (Path outputPath : outputPaths) {
+			for (File file : outputPath.toFile().listFiles()) {
+				file.delete();
+			}
+			outputPath.toFile().delete();
+		}
+	}
+
+	/**
+	 * All components of the Cocome model are allocated twice.
+	 */
+	@Test
+	public void testReplicatedAllocation() throws IOException {
+		assertSameResults("cocome/cocome-replicated.usagemodel");
+	}
+
+	/**
+	 * The forked behaviours, including nested ones, call the same services of
+	 * a component that is allocated twice. The service is called by two entry
+	 * level system calls.
+	 */
+	@Test
+	public void testForkActions() throws IOException {
+		assertSameResults("fork/fork.usagemodel");
+	}
+
+	private void assertSameResults(String usageModelResource) throws IOException {
+		Path sequentialOutputPath = Files.createTempDirectory("callgraph-sequential");
+		Path parallelOutputPath = Files.createTempDirectory("callgraph-parallel");
+		outputPaths.add(sequentialOutputPath);
+		outputPaths.add(parallelOutputPath);
+
+		PCMInstance sequentialModel = run(usageModelResource, sequentialOutputPath, false);
+		PCMInstance parallelModel = run(usageModelResource, parallelOutputPath, true);
+
+		assertEquals(describeComputedContexts(sequentialModel), describeComputedContexts(parallelModel));
+
+		String[] sequentialFiles = sequentialOutputPath.toFile().list();
+		String[] parallelFiles = parallelOutputPath.toFile().list();
+		Arrays.sort(sequentialFiles);
+		Arrays.sort(parallelFiles);
+		assertArrayEquals(sequentialFiles, parallelFiles);
+		for (File sequentialFile : sequentialOutputPath.toFile().listFiles()) {
+			if (sequentialFile.getName().endsWith(".pdf")) {
+				continue;
+			}
+			File parallelFile = new File(parallelOutputPath.toFile(), sequentialFile.getName());
+			assertEquals(sequentialFile.getName(), new String(Files.readAllBytes(sequentialFile.toPath())),
+					new String(Files.readAllBytes(parallelFile.toPath())));
+		}
+	}
+
+	private static PCMInstance run(String usageModelResource, Path outputPath, boolean parallelTraversal)
+			throws IOException {
+		ClassLoader classLoader = ParallelTraversalTest.class.getClassLoader();
+		File usageModel = new File(classLoader.getResource(usageModelResource).getFile());
+		CallGraphConfiguration configuration = new CallGraphConfiguration(usageModel.getParent(),
+				usageModel.getName().replaceAll(".usagemodel", ""), outputPath.toString());
+		configuration.setExportIds(true);
+		configuration.setParallelTraversal(parallelTraversal);
+		CallGraphGenerator generator = new CallGraphGenerator(configuration);
+		PCMInstance model = new PCMInstance(generator.createModelProperties());
+		generator.generate(model);
+		return model;
+	}
+
+	/**
+	 * Describes the computed contexts by the model elements they belong to and
+	 * the number of elements they contain, as new contexts get new ids in each
+	 * run.
+	 */
+	private static List<String> describeComputedContexts(PCMInstance model) {
+		List<ComputedUsageContext> usageContexts = model.getComputedUsage().getUsageContexts_ComputedUsage();
+		List<String> descriptions = new ArrayList<String>();
+		for (ComputedUsageContext cuc : usageContexts) {
+			descriptions.add(cuc.getAssemblyContext_ComputedUsageContext().getId() + describeContents(cuc));
+		}
+		for (ComputedAllocationContext cac : model.getComputedAllocation()
+				.getComputedAllocationContexts_ComputedAllocation()) {
+			descriptions.add(cac.getAllocationContext_ComputedAllocationContext().getId() + " usage context "
+					+ usageContexts.indexOf(cac.getUsageContext_ComputedAllocationContext()) + describeContents(cac));
+		}
+		return descriptions;
+	}
+
+	private static String describeContents(EObject context) {
+		StringBuilder description = new StringBuilder();
+		for (EReference containment : context.eClass().getEAllContainments()) {
+			Object value = context.eGet(containment);
+			description.append(' ').append(containment.getName()).append('=');
+			description.append(containment.isMany() ? ((List<?>) value).size() : (value == null ? 0 : 1));
+		}
+		return description.toString();
+	}
+}
@@ -0,0 +1,102 @@
+package io.github.squat_team.callgraph;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import io.github.squat_team.callgraph.config.CallGraphConfiguration;
+import io.github.squat_team.callgraph.data.CallGraph;
+import io.github.squat_team.callgraph.data.CallGraphListener;
+import io.github.squat_team.callgraph.export.dot.CallGraphToDotBuilder;
+
+/**
+ * Streams the call graphs of a model to a listener and verifies that they are
+ * the graphs a regular run exports. Streaming solves the usage scenarios one
+ * after the other, a regular run solves several usage scenarios concurrently.
+ */
+public class StreamingTest {
+	private static List<Path> outputPaths = new ArrayList<Path>();
+
+	@AfterClass
+	public static void cleanUp() {
+		for (Path outputPath : outputPaths) {
+			for (File file : outputPath.toFile().listFiles()) {
+				file.delete();
+			}
+			outputPath.toFile().delete();
+		}
+	}
+
+	/**
+	 * The model has two entry level system calls of the same service.
+	 */
+	@Test
+	public void testStreamedGraphs() throws IOException {
+		assertStreamedGraphsExported("fork/fork.usagemodel", "process", "processAgain");
+	}
+
+	/**
+	 * Both usage scenarios call the same service, which forks and calls a
+	 * component allocated twice.
+	 */
+	@Test
+	public void testSeveralUsageScenarios() throws IOException {
+		List<CallGraph> callGraphs = assertStreamedGraphsExported("fork/fork-scenarios.usagemodel", "processFirst",
+				"processSecond", "processSecondAgain");
+		assertEquals("firstScenario", callGraphs.get(0).getUsageScenarioName());
+		assertEquals("secondScenario", callGraphs.get(1).getUsageScenarioName());
+		assertEquals("secondScenario", callGraphs.get(2).getUsageScenarioName());
+	}
+
+	/**
+	 * Streams the call graphs and exports them with a regular run.
+	 * 
+	 * @return the streamed call graphs.
+	 */
+	private static List<CallGraph> assertStreamedGraphsExported(String usageModelResource, String... graphNames)
+			throws IOException {
+		Path outputPath = Files.createTempDirectory("callgraph-streaming");
+		outputPaths.add(outputPath);
+		CallGraphConfiguration configuration = createConfiguration(usageModelResource, outputPath);
+
+		final List<CallGraph> streamedGraphs = new ArrayList<CallGraph>();
+		new CallGraphGenerator(configuration).generate(new CallGraphListener() {
+			@Override
+			public void callGraphFinished(CallGraph callGraph) {
+				streamedGraphs.add(callGraph);
+			}
+		});
+		assertEquals(0, outputPath.toFile().list().length);
+
+		new CallGraphGenerator(configuration).generate();
+
+		assertEquals(graphNames.length, streamedGraphs.size());
+		for (int i = 0; i < graphNames.length; i++) {
+			CallGraph callGraph = streamedGraphs.get(i);
+			assertEquals(graphNames[i], callGraph.getGraphName());
+			String streamedDot = new CallGraphToDotBuilder(callGraph).build(configuration.getGraphVizConfiguration());
+			File exportedFile = new File(outputPath.toFile(), callGraph.getGraphName() + ".dot");
+			String exportedDot = new String(Files.readAllBytes(exportedFile.toPath()));
+			assertTrue(callGraph.getGraphName(), exportedDot.contains(streamedDot));
+		}
+		return streamedGraphs;
+	}
+
+	private static CallGraphConfiguration createConfiguration(String usageModelResource, Path outputPath)
+			throws IOException {
+		ClassLoader classLoader = StreamingTest.class.getClassLoader();
+		File usageModel = new File(classLoader.getResource(usageModelResource).getFile());
+		CallGraphConfiguration configuration = new CallGraphConfiguration(usageModel.getParent(),
+				usageModel.getName().replaceAll(".usagemodel", ""), outputPath.toString());
+		configuration.setExportIds(true);
+		return configuration;
+	}
+}